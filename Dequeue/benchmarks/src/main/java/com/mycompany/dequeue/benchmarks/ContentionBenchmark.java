@@ -0,0 +1,86 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.ConcurrentDeQueue;
+import java.util.concurrent.ConcurrentLinkedDeque;
+import java.util.concurrent.LinkedBlockingDeque;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Shared deque under contention: every thread pushes at one end and pops at the other.
+ * The thread count is chosen on the command line, see the README
+ * (e.g. {@code -t 1}, {@code -t 8}, {@code -t 64}).
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class ContentionBenchmark {
+
+    private ConcurrentDeQueue<Integer> concurrentDeQueue;
+    private ConcurrentLinkedDeque<Integer> concurrentLinkedDeque;
+    private LinkedBlockingDeque<Integer> linkedBlockingDeque;
+    private Integer value;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        concurrentDeQueue = new ConcurrentDeQueue<>();
+        concurrentLinkedDeque = new ConcurrentLinkedDeque<>();
+        linkedBlockingDeque = new LinkedBlockingDeque<>();
+        // Start half full so that pops rarely see an empty deque
+        for (int i = 0; i < 1024; i++) {
+            concurrentDeQueue.pushLast(i);
+            concurrentLinkedDeque.addLast(i);
+            linkedBlockingDeque.addLast(i);
+        }
+        value = 42;
+    }
+
+    @Benchmark
+    public Integer concurrentDeQueueFifo() {
+        concurrentDeQueue.pushLast(value);
+        return concurrentDeQueue.pollFirst();
+    }
+
+    @Benchmark
+    public Integer concurrentLinkedDequeFifo() {
+        concurrentLinkedDeque.addLast(value);
+        return concurrentLinkedDeque.pollFirst();
+    }
+
+    @Benchmark
+    public Integer linkedBlockingDequeFifo() {
+        linkedBlockingDeque.addLast(value);
+        return linkedBlockingDeque.pollFirst();
+    }
+
+    @Benchmark
+    public Integer concurrentDeQueueMixed() {
+        concurrentDeQueue.pushFirst(value);
+        return concurrentDeQueue.pollLast();
+    }
+
+    @Benchmark
+    public Integer concurrentLinkedDequeMixed() {
+        concurrentLinkedDeque.addFirst(value);
+        return concurrentLinkedDeque.pollLast();
+    }
+
+    @Benchmark
+    public Integer linkedBlockingDequeMixed() {
+        linkedBlockingDeque.addFirst(value);
+        return linkedBlockingDeque.pollLast();
+    }
+}
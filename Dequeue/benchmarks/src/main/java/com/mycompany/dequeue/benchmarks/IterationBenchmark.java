@@ -0,0 +1,105 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.Queue;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Full forward and backward traversal.
+ * The queue is filled with pushFirst and pushLast so that the live range wraps around the end of the array.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class IterationBenchmark {
+
+    @Param({"16", "1024", "65536", "1000000", "10000000"})
+    int size;
+
+    private Queue<Integer> queue;
+    private Queue<Integer>.Cursor cursor;
+    private ArrayDeque<Integer> arrayDeque;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new Queue<>();
+        arrayDeque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            if (i % 2 == 0) {
+                queue.pushLast(i);
+                arrayDeque.addLast(i);
+            } else {
+                queue.pushFirst(i);
+                arrayDeque.addFirst(i);
+            }
+        }
+        cursor = queue.cursor();
+    }
+
+    @Benchmark
+    public void queueIterator(Blackhole bh) {
+        Iterator<Integer> it = queue.iterator();
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    @Benchmark
+    public void arrayDequeIterator(Blackhole bh) {
+        Iterator<Integer> it = arrayDeque.iterator();
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    @Benchmark
+    public void queueDescendingIterator(Blackhole bh) {
+        Iterator<Integer> it = queue.descendingIterator();
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    @Benchmark
+    public void arrayDequeDescendingIterator(Blackhole bh) {
+        Iterator<Integer> it = arrayDeque.descendingIterator();
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+
+    @Benchmark
+    public void queueForEach(Blackhole bh) {
+        queue.forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void arrayDequeForEach(Blackhole bh) {
+        arrayDeque.forEach(bh::consume);
+    }
+
+    @Benchmark
+    public void queueCursor(Blackhole bh) {
+        Queue<Integer>.Cursor it = cursor.reset();
+        while (it.hasNext()) {
+            bh.consume(it.next());
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.OverwritingQueue;
+import com.mycompany.dequeue.Queue;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Keeping the latest N elements: one add per invocation on a full buffer.
+ * OverwritingQueue overwrites the oldest slot; Queue and ArrayDeque need a push,
+ * a size check and a pop. The snapshot benchmark copies the N latest elements.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class LatestNBenchmark {
+
+    @Param({"16", "1024"})
+    int capacity;
+
+    private OverwritingQueue<Integer> ring;
+    private Queue<Integer> queue;
+    private ArrayDeque<Integer> arrayDeque;
+    private Integer[] snapshot;
+    private Integer value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        ring = new OverwritingQueue<>(capacity);
+        queue = new Queue<>(capacity);
+        arrayDeque = new ArrayDeque<>(capacity);
+        for (int i = 0; i < capacity; i++) {
+            ring.pushLast(i);
+            queue.pushLast(i);
+            arrayDeque.addLast(i);
+        }
+        snapshot = new Integer[capacity];
+        value = 42;
+    }
+
+    @Benchmark
+    public int overwritingQueue() {
+        ring.pushLast(value);
+        return ring.size();
+    }
+
+    @Benchmark
+    public int queue() {
+        queue.pushLast(value);
+        if (queue.size() > capacity) {
+            queue.popFirst();
+        }
+        return queue.size();
+    }
+
+    @Benchmark
+    public int arrayDeque() {
+        arrayDeque.addLast(value);
+        if (arrayDeque.size() > capacity) {
+            arrayDeque.pollFirst();
+        }
+        return arrayDeque.size();
+    }
+
+    @Benchmark
+    public Integer[] overwritingQueueSnapshot() {
+        ring.snapshot(snapshot);
+        return snapshot;
+    }
+}
@@ -0,0 +1,98 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.MulticastRing;
+import com.mycompany.dequeue.SpscQueue;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.ThreadParams;
+
+/**
+ * One producer fanning every event out to three reader threads.
+ * MulticastRing writes each event once into a shared slot; the baseline copies it into one SpscQueue per reader.
+ * A failed publish or an empty drain counts as an operation too, so compare the producer rows.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Group)
+public class MulticastBenchmark {
+
+    private static final int CAPACITY = 1024;
+    private static final int READERS = 3;
+
+    public static final class Event {
+        long value;
+    }
+
+    private MulticastRing<Event> ring;
+    private List<MulticastRing<Event>.Reader> readers;
+    private List<SpscQueue<Long>> queues;
+    private long next;
+    private Long boxed;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        ring = new MulticastRing<>(CAPACITY, Event::new);
+        readers = new ArrayList<>(READERS);
+        queues = new ArrayList<>(READERS);
+        for (int i = 0; i < READERS; i++) {
+            readers.add(ring.newReader());
+            queues.add(new SpscQueue<>(CAPACITY));
+        }
+        boxed = 42L;
+    }
+
+    @Benchmark
+    @Group("multicast")
+    @GroupThreads(1)
+    public boolean multicastPublish() {
+        long value = next++;
+        return ring.tryPublish(e -> e.value = value);
+    }
+
+    @Benchmark
+    @Group("multicast")
+    @GroupThreads(READERS)
+    public int multicastDrain(ThreadParams params) {
+        return readers.get(params.getSubgroupThreadIndex()).drain(e -> { });
+    }
+
+    @Benchmark
+    @Group("copyPerReader")
+    @GroupThreads(1)
+    public boolean copyPerReaderOffer() {
+        // Succeeds only if every reader's queue has room, like the gated ring
+        for (SpscQueue<Long> queue : queues) {
+            if (queue.size() == CAPACITY) {
+                return false;
+            }
+        }
+        for (SpscQueue<Long> queue : queues) {
+            queue.offer(boxed);
+        }
+        return true;
+    }
+
+    @Benchmark
+    @Group("copyPerReader")
+    @GroupThreads(READERS)
+    public int copyPerReaderDrain(ThreadParams params) {
+        return queues.get(params.getSubgroupThreadIndex()).drain(e -> { }, CAPACITY);
+    }
+}
@@ -0,0 +1,88 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.Queue;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Growth and shrink cost.
+ * grow* fills an empty queue to the given size, going through every doubleCapacity step.
+ * growAndShrink* additionally drains it again, going through every halfCapacity step
+ * (ArrayDeque never shrinks, so its numbers are the lower bound).
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class ResizeBenchmark {
+
+    @Param({"16", "1024", "65536", "1000000"})
+    int size;
+
+    private Integer value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        value = 42;
+    }
+
+    @Benchmark
+    public Queue<Integer> queueGrow() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 0; i < size; i++) {
+            queue.pushLast(value);
+        }
+        return queue;
+    }
+
+    @Benchmark
+    public ArrayDeque<Integer> arrayDequeGrow() {
+        ArrayDeque<Integer> deque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(value);
+        }
+        return deque;
+    }
+
+    @Benchmark
+    public int queueGrowAndShrink() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 0; i < size; i++) {
+            queue.pushLast(value);
+        }
+        int count = 0;
+        while (!queue.isEmpty()) {
+            queue.popFirst();
+            count++;
+        }
+        return count;
+    }
+
+    @Benchmark
+    public int arrayDequeGrowAndShrink() {
+        ArrayDeque<Integer> deque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            deque.addLast(value);
+        }
+        int count = 0;
+        while (!deque.isEmpty()) {
+            deque.pollFirst();
+            count++;
+        }
+        return count;
+    }
+}
@@ -0,0 +1,94 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.ElementCodec;
+import com.mycompany.dequeue.Queue;
+import com.mycompany.dequeue.QueueSnapshot;
+import java.io.IOException;
+import java.io.ObjectOutputStream;
+import java.io.OutputStream;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Writing a whole queue of Integers with QueueSnapshot against Java serialization of the same queue.
+ * Both write into a sink that discards the bytes, so only the encoding cost is measured.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(2)
+@State(Scope.Benchmark)
+public class SnapshotBenchmark {
+
+    @Param({"100000", "10000000"})
+    int size;
+
+    private Queue<Integer> queue;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new Queue<>(size);
+        for (int i = 0; i < size; i++) {
+            queue.pushLast(i);
+        }
+    }
+
+    @Benchmark
+    public long snapshot() throws IOException {
+        return QueueSnapshot.write(queue, ElementCodec.INT, new NullChannel());
+    }
+
+    @Benchmark
+    public void serialization() throws IOException {
+        try (ObjectOutputStream out = new ObjectOutputStream(OutputStream.nullOutputStream())) {
+            out.writeObject(queue);
+        }
+    }
+
+    private static final class NullChannel implements GatheringByteChannel {
+
+        @Override
+        public int write(ByteBuffer src) {
+            int n = src.remaining();
+            src.position(src.limit());
+            return n;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs, int offset, int length) {
+            long n = 0;
+            for (int i = offset; i < offset + length; i++) {
+                n += write(srcs[i]);
+            }
+            return n;
+        }
+
+        @Override
+        public long write(ByteBuffer[] srcs) {
+            return write(srcs, 0, srcs.length);
+        }
+
+        @Override
+        public boolean isOpen() {
+            return true;
+        }
+
+        @Override
+        public void close() {
+        }
+    }
+}
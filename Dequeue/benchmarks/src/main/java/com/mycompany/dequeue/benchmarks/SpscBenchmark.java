@@ -0,0 +1,76 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.SpscQueue;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Group;
+import org.openjdk.jmh.annotations.GroupThreads;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * One producer thread and one consumer thread passing elements through a bounded ring.
+ * A failed offer or an empty poll counts as an operation too, so compare the producer
+ * and consumer rows of each group rather than the group total.
+ * ArrayBlockingQueue is the baseline, since ArrayDeque cannot be shared between threads.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Group)
+public class SpscBenchmark {
+
+    @Param({"1024", "65536"})
+    int capacity;
+
+    private SpscQueue<Integer> spscQueue;
+    private ArrayBlockingQueue<Integer> blockingQueue;
+    private Integer value;
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        spscQueue = new SpscQueue<>(capacity);
+        blockingQueue = new ArrayBlockingQueue<>(capacity);
+        value = 42;
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public boolean spscOffer() {
+        return spscQueue.offer(value);
+    }
+
+    @Benchmark
+    @Group("spsc")
+    @GroupThreads(1)
+    public Integer spscPoll() {
+        return spscQueue.poll();
+    }
+
+    @Benchmark
+    @Group("arrayBlockingQueue")
+    @GroupThreads(1)
+    public boolean arrayBlockingQueueOffer() {
+        return blockingQueue.offer(value);
+    }
+
+    @Benchmark
+    @Group("arrayBlockingQueue")
+    @GroupThreads(1)
+    public Integer arrayBlockingQueuePoll() {
+        return blockingQueue.poll();
+    }
+}
@@ -0,0 +1,89 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.Queue;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Steady-state push/pop throughput at a fixed queue size.
+ * Every invocation performs one push and one pop, so the size never changes
+ * and neither doubleCapacity nor halfCapacity is triggered.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class SteadyStateBenchmark {
+
+    @Param({"16", "1024", "65536", "1000000"})
+    int size;
+
+    private Queue<Integer> queue;
+    private ArrayDeque<Integer> arrayDeque;
+    private Integer value;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new Queue<>();
+        arrayDeque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            queue.pushLast(i);
+            arrayDeque.addLast(i);
+        }
+        // A single boxed value keeps allocation out of the measurement
+        value = 42;
+    }
+
+    // FIFO: push at the end, pop from the front
+    @Benchmark
+    public Integer queueFifo() {
+        queue.pushLast(value);
+        return queue.popFirst();
+    }
+
+    @Benchmark
+    public Integer arrayDequeFifo() {
+        arrayDeque.addLast(value);
+        return arrayDeque.pollFirst();
+    }
+
+    // LIFO: push and pop at the end
+    @Benchmark
+    public Integer queueLifo() {
+        queue.pushLast(value);
+        return queue.popLast();
+    }
+
+    @Benchmark
+    public Integer arrayDequeLifo() {
+        arrayDeque.addLast(value);
+        return arrayDeque.pollLast();
+    }
+
+    // Mixed ends: push at the front, pop from the end
+    @Benchmark
+    public Integer queueMixed() {
+        queue.pushFirst(value);
+        return queue.popLast();
+    }
+
+    @Benchmark
+    public Integer arrayDequeMixed() {
+        arrayDeque.addFirst(value);
+        return arrayDeque.pollLast();
+    }
+}
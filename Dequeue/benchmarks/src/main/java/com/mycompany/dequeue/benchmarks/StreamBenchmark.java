@@ -0,0 +1,71 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.Queue;
+import java.util.ArrayDeque;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Sequential and parallel stream scans.
+ * The queue is filled from both ends so that the live range wraps around the end of the array.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(value = 2, jvmArgsAppend = "-Xmx4g")
+@State(Scope.Thread)
+public class StreamBenchmark {
+
+    @Param({"1000000", "10000000"})
+    int size;
+
+    private Queue<Integer> queue;
+    private ArrayDeque<Integer> arrayDeque;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        queue = new Queue<>();
+        arrayDeque = new ArrayDeque<>();
+        for (int i = 0; i < size; i++) {
+            if (i % 2 == 0) {
+                queue.pushLast(i);
+                arrayDeque.addLast(i);
+            } else {
+                queue.pushFirst(i);
+                arrayDeque.addFirst(i);
+            }
+        }
+    }
+
+    @Benchmark
+    public long queueSequentialSum() {
+        return queue.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long arrayDequeSequentialSum() {
+        return arrayDeque.stream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long queueParallelSum() {
+        return queue.parallelStream().mapToLong(Integer::longValue).sum();
+    }
+
+    @Benchmark
+    public long arrayDequeParallelSum() {
+        return arrayDeque.parallelStream().mapToLong(Integer::longValue).sum();
+    }
+}
@@ -0,0 +1,91 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.TimingWheel;
+import java.util.PriorityQueue;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Timer management with `size` timeouts pending, on TimingWheel against a PriorityQueue of deadlines.
+ * "scheduleCancel" adds a timeout and cancels it again (the wheel also advances one tick, which drops the
+ * cancelled timeouts of that bucket); "scheduleExpire" adds a timeout `size` ticks ahead and advances one
+ * tick, so one timeout expires per operation.
+ */
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class TimingWheelBenchmark {
+
+    @Param({"1024", "1000000"})
+    int size;
+
+    private static final Runnable TASK = () -> { };
+
+    private TimingWheel wheel;
+    private PriorityQueue<Timer> priorityQueue;
+    private long now;
+
+    private static final class Timer implements Comparable<Timer> {
+        final long deadline;
+
+        Timer(long deadline) {
+            this.deadline = deadline;
+        }
+
+        @Override
+        public int compareTo(Timer other) {
+            return Long.compare(deadline, other.deadline);
+        }
+    }
+
+    @Setup(Level.Iteration)
+    public void setUp() {
+        wheel = new TimingWheel(1, TimeUnit.MILLISECONDS);
+        priorityQueue = new PriorityQueue<>();
+        now = 0;
+        for (int i = 1; i <= size; i++) {
+            wheel.schedule(TASK, i, TimeUnit.MILLISECONDS);
+            priorityQueue.add(new Timer(i));
+        }
+    }
+
+    @Benchmark
+    public int wheelScheduleCancel() {
+        wheel.schedule(TASK, size / 2, TimeUnit.MILLISECONDS).cancel();
+        return wheel.tick();
+    }
+
+    @Benchmark
+    public boolean priorityQueueScheduleCancel() {
+        Timer timer = new Timer(now + size / 2);
+        priorityQueue.add(timer);
+        return priorityQueue.remove(timer);
+    }
+
+    @Benchmark
+    public int wheelScheduleExpire() {
+        wheel.schedule(TASK, size, TimeUnit.MILLISECONDS);
+        return wheel.tick();
+    }
+
+    @Benchmark
+    public Timer priorityQueueScheduleExpire() {
+        now++;
+        priorityQueue.add(new Timer(now + size));
+        return priorityQueue.poll();
+    }
+}
@@ -0,0 +1,98 @@
+package com.mycompany.dequeue.benchmarks;
+
+import com.mycompany.dequeue.WorkStealingPool;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.Executor;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+/**
+ * Task scheduling throughput of WorkStealingPool against ForkJoinPool with the same parallelism.
+ * "submit" posts many small tasks from the benchmark thread (shared submission queue, then stealing);
+ * "fanOut" posts a few tasks that each spawn their children from a worker (own deque, then stealing).
+ * Every invocation waits until all tasks have run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Benchmark)
+public class WorkStealingBenchmark {
+
+    @Param({"4"})
+    int parallelism;
+
+    @Param({"64"})
+    int fanOut;
+
+    private WorkStealingPool workStealingPool;
+    private ForkJoinPool forkJoinPool;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        workStealingPool = new WorkStealingPool(parallelism);
+        forkJoinPool = new ForkJoinPool(parallelism);
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws InterruptedException {
+        workStealingPool.close();
+        forkJoinPool.shutdown();
+        forkJoinPool.awaitTermination(1, TimeUnit.MINUTES);
+    }
+
+    @Benchmark
+    public void workStealingPoolSubmit() throws InterruptedException {
+        submit(workStealingPool);
+    }
+
+    @Benchmark
+    public void forkJoinPoolSubmit() throws InterruptedException {
+        submit(forkJoinPool);
+    }
+
+    @Benchmark
+    public void workStealingPoolFanOut() throws InterruptedException {
+        fanOut(workStealingPool);
+    }
+
+    @Benchmark
+    public void forkJoinPoolFanOut() throws InterruptedException {
+        fanOut(forkJoinPool);
+    }
+
+    private void submit(Executor executor) throws InterruptedException {
+        int tasks = fanOut * fanOut;
+        CountDownLatch done = new CountDownLatch(tasks);
+        for (int i = 0; i < tasks; i++) {
+            executor.execute(done::countDown);
+        }
+        done.await();
+    }
+
+    private void fanOut(Executor executor) throws InterruptedException {
+        CountDownLatch done = new CountDownLatch(fanOut * fanOut);
+        for (int i = 0; i < fanOut; i++) {
+            executor.execute(() -> {
+                for (int j = 0; j < fanOut; j++) {
+                    executor.execute(done::countDown);
+                }
+            });
+        }
+        done.await();
+    }
+}
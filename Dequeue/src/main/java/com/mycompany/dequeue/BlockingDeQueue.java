@@ -0,0 +1,129 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.util.Collection;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * A bounded double ended queue whose operations can wait for space or for elements.
+ * <p>
+ * The {@link DeQueue} methods never wait: {@code pushFirst/pushLast} throw an
+ * {@link IllegalStateException} when the queue is full and {@code popFirst/popLast}
+ * throw a {@link java.util.NoSuchElementException} when it is empty.
+ *
+ * @param <E> the element type
+ */
+public interface BlockingDeQueue<E> extends DeQueue<E> {
+    /**
+     * Push a new element at the front of the queue, waiting for space if necessary
+     *
+     * @param elem the element
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void putFirst(E elem) throws InterruptedException;
+
+    /**
+     * Push a new element at the end of the queue, waiting for space if necessary
+     *
+     * @param elem the element
+     * @throws InterruptedException if interrupted while waiting
+     */
+    void putLast(E elem) throws InterruptedException;
+
+    /**
+     * Pop an element from the front of the queue, waiting for one if necessary
+     *
+     * @return the element
+     * @throws InterruptedException if interrupted while waiting
+     */
+    E takeFirst() throws InterruptedException;
+
+    /**
+     * Pop an element from the end of the queue, waiting for one if necessary
+     *
+     * @return the element
+     * @throws InterruptedException if interrupted while waiting
+     */
+    E takeLast() throws InterruptedException;
+
+    /**
+     * Push a new element at the front of the queue, waiting up to the given time for space
+     *
+     * @param elem the element
+     * @param timeout how long to wait
+     * @param unit the unit of the timeout
+     * @return true if the element was added, false if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean offerFirst(E elem, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Push a new element at the end of the queue, waiting up to the given time for space
+     *
+     * @param elem the element
+     * @param timeout how long to wait
+     * @param unit the unit of the timeout
+     * @return true if the element was added, false if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean offerLast(E elem, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Pop an element from the front of the queue, waiting up to the given time for one
+     *
+     * @param timeout how long to wait
+     * @param unit the unit of the timeout
+     * @return the element, or null if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    E pollFirst(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Pop an element from the end of the queue, waiting up to the given time for one
+     *
+     * @param timeout how long to wait
+     * @param unit the unit of the timeout
+     * @return the element, or null if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    E pollLast(long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Wait until the queue holds at least the given number of elements, up to the given time.
+     * No element is removed; a size larger than the capacity can only time out.
+     *
+     * @param minSize the number of elements to wait for
+     * @param timeout how long to wait
+     * @param unit the unit of the timeout
+     * @return true if the queue holds at least minSize elements, false if the time elapsed first
+     * @throws InterruptedException if interrupted while waiting
+     */
+    boolean awaitSize(int minSize, long timeout, TimeUnit unit) throws InterruptedException;
+
+    /**
+     * Remove all available elements, from the front, and add them to the given collection
+     *
+     * @param target the collection to add the elements to
+     * @return the number of elements moved
+     */
+    int drainTo(Collection<? super E> target);
+
+    /**
+     * Remove at most the given number of elements, from the front, and add them to the given collection
+     *
+     * @param target the collection to add the elements to
+     * @param maxElements the maximum number of elements to move
+     * @return the number of elements moved
+     */
+    int drainTo(Collection<? super E> target, int maxElements);
+
+    /**
+     * Get the number of elements that can still be added without waiting
+     *
+     * @return the remaining capacity
+     */
+    int remainingCapacity();
+}
@@ -0,0 +1,528 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A bounded {@link BlockingDeQueue}: a {@link Queue} (circular array) guarded by a {@link ReentrantLock}.
+ * <p>
+ * Unlike {@link ConcurrentDeQueue}, it has a single lock for both ends: the capacity check and the
+ * not-full and not-empty conditions concern the whole queue, so a push at one end has to see the pops
+ * at the other end anyway. The critical sections are a few array accesses, and the size is published
+ * through a volatile field, so that {@link #size()} and {@link #isEmpty()} never take the lock.
+ * <p>
+ * A thread that has to wait first spins for a short while, then yields, and only then parks on a
+ * {@link Condition} of the {@link java.util.concurrent.locks.ReentrantLock}. Short waits, which are
+ * the common case between a fast producer and a fast consumer, therefore never park, while long
+ * waits do not burn a core. Parking goes through the lock's conditions rather than
+ * {@code Object.wait}, so virtual threads unmount from their carrier while they wait.
+ *
+ * @param <E> the element type
+ */
+public class BoundedBlockingQueue<E> implements BlockingDeQueue<E> {
+
+    // Wait strategy: busy-spin first, then yield, then park
+    private static final int SPIN_TRIES = 100;
+    private static final int YIELD_TRIES = 10;
+
+    //Variables
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Queue<E> queue = new Queue<>();
+    // Written under the lock, read without it
+    private volatile int count;
+    private final int capacity;
+    private final Condition notEmpty = lock.newCondition();
+    private final Condition notFull = lock.newCondition();
+    private final Condition sizeReached = lock.newCondition();
+    // The smallest size a thread waits for in awaitSize, Integer.MAX_VALUE if none; guarded by the lock
+    private int awaitedSize = Integer.MAX_VALUE;
+
+    /**
+     * Constructs a new BoundedBlockingQueue.
+     *
+     * @param capacity The maximum number of elements the queue can hold.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public BoundedBlockingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        this.capacity = capacity;
+    }
+
+    /**
+     * Adds the specified element to the front of the queue.
+     *
+     * @param elem The element to be added to the front of the queue.
+     * @throws IllegalStateException If the queue is full.
+     */
+    @Override
+    public void pushFirst(E elem) {
+        lock.lock();
+        try {
+            if (count == capacity) {
+                throw new IllegalStateException("Queue full");
+            }
+            insert(elem, true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds the specified element to the end of the queue.
+     *
+     * @param elem The element to be added to the end of the queue.
+     * @throws IllegalStateException If the queue is full.
+     */
+    @Override
+    public void pushLast(E elem) {
+        lock.lock();
+        try {
+            if (count == capacity) {
+                throw new IllegalStateException("Queue full");
+            }
+            insert(elem, false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E popFirst() {
+        lock.lock();
+        try {
+            return extract(true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E popLast() {
+        lock.lock();
+        try {
+            return extract(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the element at the front of the queue, if there is one.
+     *
+     * @return The element at the front of the queue, or {@code null} if the queue is empty.
+     */
+    public E pollFirst() {
+        // Fast path for an empty queue, without the lock
+        if (count == 0) {
+            return null;
+        }
+        lock.lock();
+        try {
+            return count == 0 ? null : extract(true);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the element at the end of the queue, if there is one.
+     *
+     * @return The element at the end of the queue, or {@code null} if the queue is empty.
+     */
+    public E pollLast() {
+        // Fast path for an empty queue, without the lock
+        if (count == 0) {
+            return null;
+        }
+        lock.lock();
+        try {
+            return count == 0 ? null : extract(false);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds all elements to the front of the queue, keeping their order.
+     *
+     * @param elems The elements to be added to the front of the queue.
+     * @throws IllegalStateException If there is not enough space for all of them; nothing is added then.
+     */
+    @Override
+    public void pushAllFirst(E[] elems) {
+        lock.lock();
+        try {
+            if (elems.length > capacity - count) {
+                throw new IllegalStateException("Queue full");
+            }
+            queue.pushAllFirst(elems);
+            count = queue.size();
+            notEmpty.signalAll();
+            signalSizeReached();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Adds all elements to the end of the queue, keeping their order.
+     *
+     * @param elems The elements to be added to the end of the queue.
+     * @throws IllegalStateException If there is not enough space for all of them; nothing is added then.
+     */
+    @Override
+    public void pushAllLast(E[] elems) {
+        lock.lock();
+        try {
+            if (elems.length > capacity - count) {
+                throw new IllegalStateException("Queue full");
+            }
+            queue.pushAllLast(elems);
+            count = queue.size();
+            notEmpty.signalAll();
+            signalSizeReached();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int popFirst(int n, E[] dst, int offset) {
+        lock.lock();
+        try {
+            int popped = queue.popFirst(n, dst, offset);
+            count = queue.size();
+            if (popped > 0) {
+                notFull.signalAll();
+            }
+            return popped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int popLast(int n, E[] dst) {
+        lock.lock();
+        try {
+            int popped = queue.popLast(n, dst);
+            count = queue.size();
+            if (popped > 0) {
+                notFull.signalAll();
+            }
+            return popped;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public void pushAllLast(Collection<? extends E> elems) {
+        pushAllLast((E[]) elems.toArray());
+    }
+
+    @Override
+    public int drainTo(Consumer<? super E> action) {
+        E[] elements = (E[]) new Object[count];
+        int n = popFirst(elements.length, elements);
+        for (int i = 0; i < n; i++) {
+            action.accept(elements[i]);
+        }
+        return n;
+    }
+
+    @Override
+    public E first() {
+        lock.lock();
+        try {
+            return queue.first();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public E last() {
+        lock.lock();
+        try {
+            return queue.last();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return count == 0;
+    }
+
+    @Override
+    public int size() {
+        return count;
+    }
+
+    @Override
+    public void clear() {
+        lock.lock();
+        try {
+            queue.clear();
+            count = 0;
+            notFull.signalAll();
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements, from front to end.
+     * Later modifications of the queue are not reflected and never cause a ConcurrentModificationException.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return Arrays.asList(snapshot()).iterator();
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements, from end to front.
+     */
+    @Override
+    public Iterator<E> descendingIterator() {
+        Object[] elements = snapshot();
+        for (int i = 0, j = elements.length - 1; i < j; i++, j--) {
+            Object tmp = elements[i];
+            elements[i] = elements[j];
+            elements[j] = tmp;
+        }
+        return (Iterator<E>) Arrays.asList(elements).iterator();
+    }
+
+    @Override
+    public void putFirst(E elem) throws InterruptedException {
+        put(elem, true);
+    }
+
+    @Override
+    public void putLast(E elem) throws InterruptedException {
+        put(elem, false);
+    }
+
+    @Override
+    public E takeFirst() throws InterruptedException {
+        return take(true);
+    }
+
+    @Override
+    public E takeLast() throws InterruptedException {
+        return take(false);
+    }
+
+    @Override
+    public boolean offerFirst(E elem, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(elem, true, unit.toNanos(timeout));
+    }
+
+    @Override
+    public boolean offerLast(E elem, long timeout, TimeUnit unit) throws InterruptedException {
+        return offer(elem, false, unit.toNanos(timeout));
+    }
+
+    @Override
+    public E pollFirst(long timeout, TimeUnit unit) throws InterruptedException {
+        return poll(true, unit.toNanos(timeout));
+    }
+
+    @Override
+    public E pollLast(long timeout, TimeUnit unit) throws InterruptedException {
+        return poll(false, unit.toNanos(timeout));
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> target) {
+        return drainTo(target, Integer.MAX_VALUE);
+    }
+
+    @Override
+    public int drainTo(Collection<? super E> target, int maxElements) {
+        if (target == this) {
+            throw new IllegalArgumentException();
+        }
+        if (maxElements <= 0) {
+            return 0;
+        }
+        E[] elements = (E[]) new Object[Math.min(maxElements, count)];
+        int n = popFirst(elements.length, elements);
+        for (int i = 0; i < n; i++) {
+            target.add(elements[i]);
+        }
+        return n;
+    }
+
+    @Override
+    public boolean awaitSize(int minSize, long timeout, TimeUnit unit) throws InterruptedException {
+        if (count >= minSize) {
+            return true;
+        }
+        long nanos = unit.toNanos(timeout);
+        lock.lockInterruptibly();
+        try {
+            while (count < minSize) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                awaitedSize = Math.min(awaitedSize, minSize);
+                nanos = sizeReached.awaitNanos(nanos);
+            }
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    @Override
+    public int remainingCapacity() {
+        return capacity - count;
+    }
+
+    private void put(E elem, boolean front) throws InterruptedException {
+        spinWhile(true, false, 0L);
+        lock.lockInterruptibly();
+        try {
+            while (count == capacity) {
+                notFull.await();
+            }
+            insert(elem, front);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private E take(boolean front) throws InterruptedException {
+        spinWhile(false, false, 0L);
+        lock.lockInterruptibly();
+        try {
+            while (count == 0) {
+                notEmpty.await();
+            }
+            return extract(front);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private boolean offer(E elem, boolean front, long nanos) throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+        spinWhile(true, true, deadline);
+        lock.lockInterruptibly();
+        try {
+            nanos = deadline - System.nanoTime();
+            while (count == capacity) {
+                if (nanos <= 0L) {
+                    return false;
+                }
+                nanos = notFull.awaitNanos(nanos);
+            }
+            insert(elem, front);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private E poll(boolean front, long nanos) throws InterruptedException {
+        long deadline = System.nanoTime() + nanos;
+        spinWhile(false, true, deadline);
+        lock.lockInterruptibly();
+        try {
+            nanos = deadline - System.nanoTime();
+            while (count == 0) {
+                if (nanos <= 0L) {
+                    return null;
+                }
+                nanos = notEmpty.awaitNanos(nanos);
+            }
+            return extract(front);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Spins, then yields, while the queue is full (or empty), without taking the lock.
+     * Returns as soon as the condition clears, the deadline passes or the tries are used up;
+     * the caller then re-checks under the lock and parks if it still has to wait.
+     *
+     * @param whileFull {@code true} to wait for space, {@code false} to wait for an element.
+     * @param timed {@code true} if the deadline applies.
+     * @param deadline The System.nanoTime() after which to stop waiting.
+     */
+    private void spinWhile(boolean whileFull, boolean timed, long deadline) {
+        int blocked = whileFull ? capacity : 0;
+        for (int i = 0; i < SPIN_TRIES + YIELD_TRIES; i++) {
+            if (count != blocked || (timed && System.nanoTime() - deadline >= 0L)) {
+                return;
+            }
+            if (i < SPIN_TRIES) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    /**
+     * Copies the elements, from front to end, into a new array while holding the lock.
+     */
+    private E[] snapshot() {
+        lock.lock();
+        try {
+            E[] elements = (E[]) new Object[queue.size()];
+            int i = 0;
+            for (E elem : queue) {
+                elements[i++] = elem;
+            }
+            return elements;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    // Must be called while holding the lock, with space in the queue
+    private void insert(E elem, boolean front) {
+        if (front) {
+            queue.pushFirst(elem);
+        } else {
+            queue.pushLast(elem);
+        }
+        count = queue.size();
+        notEmpty.signal();
+        signalSizeReached();
+    }
+
+    // Must be called while holding the lock, after the queue grew
+    private void signalSizeReached() {
+        if (count >= awaitedSize) {
+            // Waiters that still need more elements lower awaitedSize again when they go back to waiting
+            awaitedSize = Integer.MAX_VALUE;
+            sizeReached.signalAll();
+        }
+    }
+
+    // Must be called while holding the lock; throws NoSuchElementException if the queue is empty
+    private E extract(boolean front) {
+        E elem = front ? queue.popFirst() : queue.popLast();
+        count = queue.size();
+        notFull.signal();
+        return elem;
+    }
+}
@@ -0,0 +1,552 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+
+/**
+ * A thread-safe double ended queue for any number of producer and consumer threads, with one lock per end.
+ * <p>
+ * The elements live in a chain of small fixed-size array segments. Like {@link SpscQueue}, the front and
+ * rear are unbounded {@code long} indices: the element at index {@code i} is in slot {@code i & MASK} of
+ * segment {@code i >> SEGMENT_SHIFT}, and the elements are those from {@code head} up to {@code tail}.
+ * The front end is guarded by its own {@link ReentrantLock} and the rear end by another, so threads
+ * working at different ends do not wait for each other.
+ * <p>
+ * A push only writes beyond the current elements, into its own end's segment or a new one, so it never
+ * needs the other lock. A pop takes an element that the other end may also reach when the deque is short,
+ * so it first reads the other end's index: if the ends are at least three segments apart, neither can reach
+ * a segment the other is using before the next check, and the pop goes ahead with its own lock only.
+ * Otherwise it takes both locks (front first, so that two threads never wait for each other's lock), which
+ * makes a short deque behave like one guarded by a single lock. Each end publishes its index with a release
+ * store after its writes, and the other end reads it with an acquire load, so an element pushed at one end
+ * is fully visible when it is popped at the other.
+ * <p>
+ * The two ends' fields are padded onto separate cache lines. Each end keeps the last segment it gave up
+ * as a spare, so a deque that moves back and forth across a segment boundary does not allocate.
+ * Bulk pops, {@link #clear()} and the iterators take both locks.
+ * <p>
+ * {@link #popFirst()} and {@link #popLast()} keep the {@link DeQueue} contract and throw when the queue is empty;
+ * since another thread may empty the queue between a check and a pop, {@link #pollFirst()} and {@link #pollLast()}
+ * return {@code null} instead. The iterators work on a snapshot taken when they are created.
+ *
+ * @param <E> the element type
+ */
+public class ConcurrentDeQueue<E> extends ConcurrentDeQueueTailFields implements DeQueue<E> {
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(ConcurrentDeQueueHeadFields.class, "head", long.class);
+            TAIL = lookup.findVarHandle(ConcurrentDeQueueTailFields.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    // Segments of 32 slots: a pop takes one lock once the deque spans more than two segments
+    static final int SEGMENT_SHIFT = 5;
+    static final int MASK = (1 << SEGMENT_SHIFT) - 1;
+    // How many segments apart the ends must be for a pop to take only its own lock
+    private static final int SEPARATION = 3;
+
+    // Padding after the tail fields
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+
+    /**
+     * Constructs a new, empty ConcurrentDeQueue.
+     */
+    public ConcurrentDeQueue() {
+        ConcurrentDeQueueSegment segment = new ConcurrentDeQueueSegment();
+        headSegment = segment;
+        tailSegment = segment;
+    }
+
+    @Override
+    public void pushFirst(E elem) {
+        headLock.lock();
+        try {
+            HEAD.setRelease(this, linkFirst(head, elem));
+        } finally {
+            headLock.unlock();
+        }
+    }
+
+    @Override
+    public void pushLast(E elem) {
+        tailLock.lock();
+        try {
+            TAIL.setRelease(this, linkLast(tail, elem));
+        } finally {
+            tailLock.unlock();
+        }
+    }
+
+    /**
+     * Removes and returns the element at the front of the queue.
+     *
+     * @return The element at the front of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    @Override
+    public E popFirst() {
+        return removeFirst(true);
+    }
+
+    /**
+     * Removes and returns the element at the end of the queue.
+     *
+     * @return The element at the end of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    @Override
+    public E popLast() {
+        return removeLast(true);
+    }
+
+    /**
+     * Removes and returns the element at the front of the queue, if there is one.
+     *
+     * @return The element at the front of the queue, or {@code null} if the queue is empty.
+     */
+    public E pollFirst() {
+        // Fast path for an empty queue, without the locks
+        if (isEmpty()) {
+            return null;
+        }
+        return removeFirst(false);
+    }
+
+    /**
+     * Removes and returns the element at the end of the queue, if there is one.
+     *
+     * @return The element at the end of the queue, or {@code null} if the queue is empty.
+     */
+    public E pollLast() {
+        // Fast path for an empty queue, without the locks
+        if (isEmpty()) {
+            return null;
+        }
+        return removeLast(false);
+    }
+
+    /**
+     * Adds all elements to the front of the queue, keeping their order, under a single lock acquisition.
+     *
+     * @param elems The elements to be added to the front of the queue.
+     */
+    @Override
+    public void pushAllFirst(E[] elems) {
+        headLock.lock();
+        try {
+            long h = head;
+            for (int i = elems.length - 1; i >= 0; i--) {
+                h = linkFirst(h, elems[i]);
+            }
+            HEAD.setRelease(this, h);
+        } finally {
+            headLock.unlock();
+        }
+    }
+
+    /**
+     * Adds all elements to the end of the queue, keeping their order, under a single lock acquisition.
+     *
+     * @param elems The elements to be added to the end of the queue.
+     */
+    @Override
+    public void pushAllLast(E[] elems) {
+        tailLock.lock();
+        try {
+            long t = tail;
+            for (E elem : elems) {
+                t = linkLast(t, elem);
+            }
+            TAIL.setRelease(this, t);
+        } finally {
+            tailLock.unlock();
+        }
+    }
+
+    @Override
+    public void pushAllLast(Collection<? extends E> elems) {
+        pushAllLast((E[]) elems.toArray());
+    }
+
+    /**
+     * Removes up to n elements from the front of the queue under a single acquisition of both locks.
+     *
+     * @param n The maximum number of elements to remove.
+     * @param dst The array that receives the elements, front first.
+     * @param offset The index in dst of the first element.
+     * @return The number of elements removed.
+     */
+    @Override
+    public int popFirst(int n, E[] dst, int offset) {
+        lockBoth();
+        try {
+            long h = head;
+            int count = (int) Math.min(n, tail - h);
+            for (int i = 0; i < count; i++) {
+                dst[offset + i] = unlinkFirst(h++);
+            }
+            HEAD.setRelease(this, h);
+            return Math.max(count, 0);
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    /**
+     * Removes up to n elements from the end of the queue under a single acquisition of both locks.
+     *
+     * @param n The maximum number of elements to remove.
+     * @param dst The array that receives the elements, last element first.
+     * @return The number of elements removed.
+     */
+    @Override
+    public int popLast(int n, E[] dst) {
+        lockBoth();
+        try {
+            long t = tail;
+            int count = (int) Math.min(n, t - head);
+            for (int i = 0; i < count; i++) {
+                dst[i] = unlinkLast(t--);
+            }
+            TAIL.setRelease(this, t);
+            return Math.max(count, 0);
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    /**
+     * Removes all elements and passes them to the given action.
+     * The elements are taken out under the locks, but the action runs after the locks are released,
+     * so it may safely use this queue.
+     *
+     * @param action The action that receives the elements.
+     * @return The number of elements removed.
+     */
+    @Override
+    public int drainTo(Consumer<? super E> action) {
+        E[] elements;
+        lockBoth();
+        try {
+            long h = head;
+            elements = (E[]) new Object[(int) (tail - h)];
+            for (int i = 0; i < elements.length; i++) {
+                elements[i] = unlinkFirst(h++);
+            }
+            HEAD.setRelease(this, h);
+        } finally {
+            unlockBoth();
+        }
+        for (E elem : elements) {
+            action.accept(elem);
+        }
+        return elements.length;
+    }
+
+    @Override
+    public E first() {
+        headLock.lock();
+        try {
+            long h = head;
+            if (apart(h, (long) TAIL.getAcquire(this))) {
+                return (E) headSegment.slots[(int) h & MASK];
+            }
+            tailLock.lock();
+            try {
+                if (h == tail) {
+                    throw new NoSuchElementException("Queue is empty");
+                }
+                return (E) headSegment.slots[(int) h & MASK];
+            } finally {
+                tailLock.unlock();
+            }
+        } finally {
+            headLock.unlock();
+        }
+    }
+
+    @Override
+    public E last() {
+        // Rarely used, so it simply holds both locks
+        lockBoth();
+        try {
+            long t = tail;
+            if (head == t) {
+                throw new NoSuchElementException("Queue is empty");
+            }
+            ConcurrentDeQueueSegment segment = (t & MASK) == 0 ? tailSegment.prev : tailSegment;
+            return (E) segment.slots[(int) (t - 1) & MASK];
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    /**
+     * Returns the number of elements. The two indices are read one after the other without the locks,
+     * so while other threads push and pop the result is only an estimate.
+     */
+    @Override
+    public int size() {
+        // Head first: an element that is in the queue during the whole call is always counted
+        long h = (long) HEAD.getAcquire(this);
+        long t = (long) TAIL.getAcquire(this);
+        return (int) Math.min(Math.max(t - h, 0L), Integer.MAX_VALUE);
+    }
+
+    @Override
+    public void clear() {
+        lockBoth();
+        try {
+            // Start over with one empty segment; the old chain is left to the garbage collector
+            ConcurrentDeQueueSegment segment = new ConcurrentDeQueueSegment();
+            headSegment = segment;
+            tailSegment = segment;
+            headSpare = null;
+            tailSpare = null;
+            HEAD.setRelease(this, 0L);
+            TAIL.setRelease(this, 0L);
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements, from front to end.
+     * Later modifications of the queue are not reflected and never cause a ConcurrentModificationException.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return Arrays.asList(snapshot()).iterator();
+    }
+
+    /**
+     * Returns an iterator over a snapshot of the elements, from end to front.
+     */
+    @Override
+    public Iterator<E> descendingIterator() {
+        Object[] elements = snapshot();
+        for (int i = 0, j = elements.length - 1; i < j; i++, j--) {
+            Object tmp = elements[i];
+            elements[i] = elements[j];
+            elements[j] = tmp;
+        }
+        return (Iterator<E>) Arrays.asList(elements).iterator();
+    }
+
+    /**
+     * Copies the elements, from front to end, into a new array while holding both locks.
+     * The elements are copied segment by segment.
+     */
+    private E[] snapshot() {
+        lockBoth();
+        try {
+            long h = head;
+            E[] elements = (E[]) new Object[(int) (tail - h)];
+            ConcurrentDeQueueSegment segment = headSegment;
+            int copied = 0;
+            while (copied < elements.length) {
+                int from = (int) (h + copied) & MASK;
+                int count = Math.min(elements.length - copied, MASK + 1 - from);
+                System.arraycopy(segment.slots, from, elements, copied, count);
+                copied += count;
+                segment = segment.next;
+            }
+            return elements;
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    // True if the segments of the two indices are far enough apart for a pop under one lock
+    private static boolean apart(long h, long t) {
+        return (t >> SEGMENT_SHIFT) - (h >> SEGMENT_SHIFT) >= SEPARATION;
+    }
+
+    private void lockBoth() {
+        headLock.lock();
+        tailLock.lock();
+    }
+
+    private void unlockBoth() {
+        tailLock.unlock();
+        headLock.unlock();
+    }
+
+    private E removeFirst(boolean required) {
+        headLock.lock();
+        try {
+            long h = head;
+            if (apart(h, (long) TAIL.getAcquire(this))) {
+                E elem = unlinkFirst(h);
+                HEAD.setRelease(this, h + 1);
+                return elem;
+            }
+            // Close to the other end: hold both locks
+            tailLock.lock();
+            try {
+                if (h == tail) {
+                    return empty(required);
+                }
+                E elem = unlinkFirst(h);
+                HEAD.setRelease(this, h + 1);
+                return elem;
+            } finally {
+                tailLock.unlock();
+            }
+        } finally {
+            headLock.unlock();
+        }
+    }
+
+    private E removeLast(boolean required) {
+        tailLock.lock();
+        try {
+            long t = tail;
+            if (apart((long) HEAD.getAcquire(this), t)) {
+                E elem = unlinkLast(t);
+                TAIL.setRelease(this, t - 1);
+                return elem;
+            }
+        } finally {
+            tailLock.unlock();
+        }
+        // Close to the other end: start over with both locks, front first
+        lockBoth();
+        try {
+            long t = tail;
+            if (head == t) {
+                return empty(required);
+            }
+            E elem = unlinkLast(t);
+            TAIL.setRelease(this, t - 1);
+            return elem;
+        } finally {
+            unlockBoth();
+        }
+    }
+
+    private E empty(boolean required) {
+        if (required) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return null;
+    }
+
+    // Stores elem just in front of index h, adding a segment at the front if h starts a segment;
+    // returns the new head index, which the caller publishes. Needs the head lock.
+    private long linkFirst(long h, E elem) {
+        if ((h & MASK) == 0) {
+            ConcurrentDeQueueSegment segment = headSpare != null ? headSpare : new ConcurrentDeQueueSegment();
+            headSpare = null;
+            segment.next = headSegment;
+            headSegment.prev = segment;
+            headSegment = segment;
+        }
+        h--;
+        headSegment.slots[(int) h & MASK] = elem;
+        return h;
+    }
+
+    // Stores elem at index t and adds a segment at the end when t + 1 starts one, so that the tail
+    // segment always holds index tail; returns the new tail index. Needs the tail lock.
+    private long linkLast(long t, E elem) {
+        tailSegment.slots[(int) t & MASK] = elem;
+        t++;
+        if ((t & MASK) == 0) {
+            ConcurrentDeQueueSegment segment = tailSpare != null ? tailSpare : new ConcurrentDeQueueSegment();
+            tailSpare = null;
+            segment.prev = tailSegment;
+            tailSegment.next = segment;
+            tailSegment = segment;
+        }
+        return t;
+    }
+
+    // Removes the element at index h, the first one, and leaves a segment that is used up. Needs the head lock.
+    private E unlinkFirst(long h) {
+        Object[] slots = headSegment.slots;
+        int index = (int) h & MASK;
+        E elem = (E) slots[index];
+        slots[index] = null;
+        if (index == MASK) {
+            ConcurrentDeQueueSegment used = headSegment;
+            headSegment = used.next;
+            headSegment.prev = null;
+            used.next = null;
+            headSpare = used;
+        }
+        return elem;
+    }
+
+    // Removes the element at index t - 1, the last one, leaving the tail segment if t starts it. Needs the tail lock.
+    private E unlinkLast(long t) {
+        if ((t & MASK) == 0) {
+            ConcurrentDeQueueSegment used = tailSegment;
+            tailSegment = used.prev;
+            tailSegment.next = null;
+            used.prev = null;
+            tailSpare = used;
+        }
+        Object[] slots = tailSegment.slots;
+        int index = (int) (t - 1) & MASK;
+        E elem = (E) slots[index];
+        slots[index] = null;
+        return elem;
+    }
+}
+
+// One block of slots in the chain of a ConcurrentDeQueue
+final class ConcurrentDeQueueSegment {
+    final Object[] slots = new Object[ConcurrentDeQueue.MASK + 1];
+    ConcurrentDeQueueSegment prev, next;
+}
+
+abstract class ConcurrentDeQueuePad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class ConcurrentDeQueueHeadFields extends ConcurrentDeQueuePad0 {
+    final ReentrantLock headLock = new ReentrantLock();
+    // Written under the head lock, read by the tail end with an acquire load
+    long head;
+    // The segment that holds index head
+    ConcurrentDeQueueSegment headSegment;
+    // The last segment the head end gave up, reused when it needs a new one
+    ConcurrentDeQueueSegment headSpare;
+}
+
+abstract class ConcurrentDeQueuePad1 extends ConcurrentDeQueueHeadFields {
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+}
+
+abstract class ConcurrentDeQueueTailFields extends ConcurrentDeQueuePad1 {
+    final ReentrantLock tailLock = new ReentrantLock();
+    // Written under the tail lock, read by the head end with an acquire load
+    long tail;
+    // The segment that holds index tail
+    ConcurrentDeQueueSegment tailSegment;
+    // The last segment the tail end gave up, reused when it needs a new one
+    ConcurrentDeQueueSegment tailSpare;
+}
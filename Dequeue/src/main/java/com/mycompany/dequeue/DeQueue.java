@@ -4,7 +4,10 @@
  */
 package com.mycompany.dequeue;
 
+import java.util.Collection;
 import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
 
 /**
  *
@@ -74,4 +77,100 @@ Iterator<E> iterator();
 * sequential order.
 */
 Iterator<E> descendingIterator();
+/**
+* Push all elements of an array at the front of the queue.
+* Afterwards the queue starts with the elements in the same order as in the array.
+*
+* @param elems the elements
+*/
+default void pushAllFirst(E[] elems) {
+    for (int i = elems.length - 1; i >= 0; i--) {
+        pushFirst(elems[i]);
+    }
+}
+/**
+* Push all elements of an array at the end of the queue, in array order
+*
+* @param elems the elements
+*/
+default void pushAllLast(E[] elems) {
+    for (E elem : elems) {
+        pushLast(elem);
+    }
+}
+/**
+* Push all elements of a collection at the front of the queue.
+* Afterwards the queue starts with the elements in the iteration order of the collection.
+*
+* @param elems the elements
+*/
+default void pushAllFirst(Collection<? extends E> elems) {
+    pushAllFirst((E[]) elems.toArray());
+}
+/**
+* Push all elements of a collection at the end of the queue, in iteration order
+*
+* @param elems the elements
+*/
+default void pushAllLast(Collection<? extends E> elems) {
+    for (E elem : elems) {
+        pushLast(elem);
+    }
+}
+/**
+* Pop up to n elements from the front of the queue into an array.
+* dst[0] receives the first element of the queue.
+*
+* @param n the maximum number of elements to pop
+* @param dst the array that receives the elements
+* @return the number of elements popped, min(n, size())
+*/
+default int popFirst(int n, E[] dst) {
+    return popFirst(n, dst, 0);
+}
+/**
+* Pop up to n elements from the front of the queue into an array, starting at an offset.
+* dst[offset] receives the first element of the queue.
+*
+* @param n the maximum number of elements to pop
+* @param dst the array that receives the elements
+* @param offset the index in dst of the first element
+* @return the number of elements popped, min(n, size())
+*/
+default int popFirst(int n, E[] dst, int offset) {
+    int count = Math.min(n, size());
+    for (int i = 0; i < count; i++) {
+        dst[offset + i] = popFirst();
+    }
+    return count;
+}
+/**
+* Pop up to n elements from the end of the queue into an array.
+* dst[0] receives the last element of the queue, in the same order as repeated calls of popLast().
+*
+* @param n the maximum number of elements to pop
+* @param dst the array that receives the elements
+* @return the number of elements popped, min(n, size())
+*/
+default int popLast(int n, E[] dst) {
+    int count = Math.min(n, size());
+    for (int i = 0; i < count; i++) {
+        dst[i] = popLast();
+    }
+    return count;
+}
+/**
+* Pop all elements from the front of the queue and pass them to an action
+*
+* @param action the action that receives the elements
+* @return the number of elements popped
+*/
+default int drainTo(Consumer<? super E> action) {
+    int count = 0;
+    while (!isEmpty()) {
+        action.accept(popFirst());
+        count++;
+    }
+    return count;
+}
 }
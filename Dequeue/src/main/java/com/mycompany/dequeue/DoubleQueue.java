@@ -0,0 +1,304 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A double ended queue of {@code double} values, stored in a circular {@code double[]} array.
+ * <p>
+ * It works like {@link Queue}: the capacity is a power of two, indices wrap with a bit mask,
+ * the array grows by doubling and shrinks according to a {@link ResizePolicy}.
+ * The {@code ...Double} methods push and pop unboxed values; the {@link DeQueue} methods
+ * are also available and box on the way in and out.
+ */
+public class DoubleQueue implements DeQueue<Double> {
+
+    //Variables
+    private double[] array;
+    private final ResizePolicy resizePolicy;
+    private int f, r, size;
+    private int modCount;
+
+    /**
+     * Constructs a new DoubleQueue with default capacity.
+     */
+    public DoubleQueue() {
+        this(Queue.DEFAULT_CAPACITY, ResizePolicy.defaultPolicy());
+    }
+
+    /**
+     * Constructs a new DoubleQueue that can hold at least the given number of values without resizing.
+     *
+     * @param initialCapacity The minimum number of values the queue can hold before growing.
+     */
+    public DoubleQueue(int initialCapacity) {
+        this(initialCapacity, ResizePolicy.defaultPolicy());
+    }
+
+    /**
+     * Constructs a new DoubleQueue with the given initial capacity and resize policy.
+     *
+     * @param initialCapacity The minimum number of values the queue can hold before growing.
+     * @param resizePolicy The policy that decides when the queue shrinks.
+     */
+    public DoubleQueue(int initialCapacity, ResizePolicy resizePolicy) {
+        array = new double[Math.max(Queue.roundUpToPowerOfTwo(initialCapacity), resizePolicy.getMinCapacity())];
+        this.resizePolicy = resizePolicy;
+        f = 0;
+        r = 0;
+        size = 0;
+    }
+
+    protected int getCapacity() {
+        return array.length;
+    }
+
+    /**
+     * Adds the specified value to the front of the queue.
+     *
+     * @param elem The value to be added to the front of the queue.
+     */
+    public void pushFirstDouble(double elem) {
+        // Check for space
+        if (size == array.length) {
+            doubleCapacity();
+        }
+        f = (f - 1) & (array.length - 1);
+        array[f] = elem;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Adds the specified value to the end of the queue.
+     *
+     * @param elem The value to be added to the end of the queue.
+     */
+    public void pushLastDouble(double elem) {
+        // Check for space
+        if (size == array.length) {
+            doubleCapacity();
+        }
+        array[r] = elem;
+        r = (r + 1) & (array.length - 1);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes and returns the value at the front of the queue.
+     *
+     * @return The value at the front of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public double popFirstDouble() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        double elem = array[f];
+        f = (f + 1) & (array.length - 1);
+        size--;
+        modCount++;
+
+        // Check if shrinking is needed
+        if (resizePolicy.shouldShrink(size, array.length)) {
+            halfCapacity();
+        }
+        return elem;
+    }
+
+    /**
+     * Removes and returns the value at the end of the queue.
+     *
+     * @return The value at the end of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public double popLastDouble() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        r = (r - 1) & (array.length - 1);
+        double elem = array[r];
+        size--;
+        modCount++;
+
+        // Check if shrinking is needed
+        if (resizePolicy.shouldShrink(size, array.length)) {
+            halfCapacity();
+        }
+        return elem;
+    }
+
+    /**
+     * Returns the value at the front of the queue without removing it.
+     *
+     * @return The value at the front of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public double firstDouble() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return array[f];
+    }
+
+    /**
+     * Returns the value at the end of the queue without removing it.
+     *
+     * @return The value at the end of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public double lastDouble() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return array[(r - 1) & (array.length - 1)];
+    }
+
+    @Override
+    public void pushFirst(Double elem) {
+        pushFirstDouble(elem);
+    }
+
+    @Override
+    public void pushLast(Double elem) {
+        pushLastDouble(elem);
+    }
+
+    @Override
+    public Double popFirst() {
+        return popFirstDouble();
+    }
+
+    @Override
+    public Double popLast() {
+        return popLastDouble();
+    }
+
+    @Override
+    public Double first() {
+        return firstDouble();
+    }
+
+    @Override
+    public Double last() {
+        return lastDouble();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all values from the queue.
+     * Primitive slots hold no references, so the array is kept unless the policy asks for a new one.
+     */
+    @Override
+    public void clear() {
+        if (!resizePolicy.isRetainOnClear()) {
+            array = new double[resizePolicy.getMinCapacity()];
+        }
+        f = 0;
+        r = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator over the values of the queue, from front to end, without boxing.
+     */
+    @Override
+    public PrimitiveIterator.OfDouble iterator() {
+        return new IteratorImpl(false);
+    }
+
+    /**
+     * Returns an iterator over the values of the queue, from end to front, without boxing.
+     */
+    @Override
+    public PrimitiveIterator.OfDouble descendingIterator() {
+        return new IteratorImpl(true);
+    }
+
+    private class IteratorImpl implements PrimitiveIterator.OfDouble {
+        private final boolean descending;
+        private final int expectedModCount;
+        private int cur;
+        private int remaining;
+
+        IteratorImpl(boolean descending) {
+            this.descending = descending;
+            this.expectedModCount = modCount;
+            this.cur = descending ? (r - 1) & (array.length - 1) : f;
+            this.remaining = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public double nextDouble() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            double elem = array[cur];
+            cur = (descending ? cur - 1 : cur + 1) & (array.length - 1);
+            remaining--;
+            return elem;
+        }
+    }
+
+    /**
+     * Copies the values, from front to end, into a new array.
+     *
+     * @return An array with the values of the queue.
+     */
+    public double[] toArray() {
+        double[] result = new double[size];
+        int firstBlock = Math.min(size, array.length - f);
+        System.arraycopy(array, f, result, 0, firstBlock);
+        System.arraycopy(array, 0, result, firstBlock, size - firstBlock);
+        return result;
+    }
+
+    private void doubleCapacity() {
+        if (array.length == Queue.MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Queue too big");
+        }
+        resize(2 * array.length);
+    }
+
+    private void halfCapacity() {
+        int newCapacity = resizePolicy.shrinkCapacity(size, array.length);
+        if (newCapacity < array.length) {
+            resize(newCapacity);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        double[] newArray = new double[newCapacity];
+        // Copy the live range as at most two blocks, one on each side of the wrap point
+        int firstBlock = Math.min(size, array.length - f);
+        System.arraycopy(array, f, newArray, 0, firstBlock);
+        System.arraycopy(array, 0, newArray, firstBlock, size - firstBlock);
+        f = 0;
+        r = size & (newCapacity - 1);
+        array = newArray;
+    }
+}
@@ -0,0 +1,132 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes elements into a variable number of bytes, for writing a whole queue to a stream of bytes.
+ * <p>
+ * Unlike {@link FixedWidthCodec}, the codec works at the position of the buffer and advances it.
+ * {@link #decode(ByteBuffer)} may throw {@link BufferUnderflowException} when the buffer holds only
+ * part of an element; the reader then restores the position, reads more bytes and tries again.
+ *
+ * @param <E> the element type
+ */
+public interface ElementCodec<E> {
+    /**
+     * Codec for Integer values (4 bytes)
+     */
+    ElementCodec<Integer> INT = of(FixedWidthCodec.INT);
+
+    /**
+     * Codec for Long values (8 bytes)
+     */
+    ElementCodec<Long> LONG = of(FixedWidthCodec.LONG);
+
+    /**
+     * Codec for Double values (8 bytes)
+     */
+    ElementCodec<Double> DOUBLE = of(FixedWidthCodec.DOUBLE);
+
+    /**
+     * Codec for String values: the number of chars (4 bytes), then the UTF-16 chars (2 bytes each).
+     * Encoding the chars as they are avoids a charset encoder and lets the size be known without encoding.
+     */
+    ElementCodec<String> STRING = new ElementCodec<String>() {
+        @Override
+        public int encodedSize(String elem) {
+            return Integer.BYTES + Character.BYTES * elem.length();
+        }
+
+        @Override
+        public void encode(String elem, ByteBuffer buffer) {
+            int length = elem.length();
+            buffer.putInt(length);
+            for (int i = 0; i < length; i++) {
+                buffer.putChar(elem.charAt(i));
+            }
+        }
+
+        @Override
+        public String decode(ByteBuffer buffer) {
+            int length = buffer.getInt();
+            if (length < 0) {
+                throw new UncheckedIOException(new StreamCorruptedException("Illegal string length: " + length));
+            }
+            // Divided rather than multiplied, so a huge length cannot overflow past the check
+            if (buffer.remaining() / Character.BYTES < length) {
+                throw new BufferUnderflowException();
+            }
+            char[] chars = new char[length];
+            buffer.asCharBuffer().get(chars);
+            buffer.position(buffer.position() + Character.BYTES * length);
+            return new String(chars);
+        }
+    };
+
+    /**
+     * Get an element codec that writes every element with the given fixed-width codec
+     *
+     * @param <E> the element type
+     * @param codec the fixed-width codec
+     * @return the element codec
+     */
+    static <E> ElementCodec<E> of(FixedWidthCodec<E> codec) {
+        return new ElementCodec<E>() {
+            @Override
+            public int encodedSize(E elem) {
+                return codec.width();
+            }
+
+            @Override
+            public void encode(E elem, ByteBuffer buffer) {
+                int position = buffer.position();
+                codec.write(buffer, position, elem);
+                buffer.position(position + codec.width());
+            }
+
+            @Override
+            public E decode(ByteBuffer buffer) {
+                int position = buffer.position();
+                if (buffer.limit() - position < codec.width()) {
+                    throw new BufferUnderflowException();
+                }
+                E elem = codec.read(buffer, position);
+                buffer.position(position + codec.width());
+                return elem;
+            }
+        };
+    }
+
+    /**
+     * Get the number of bytes encode() writes for the element
+     *
+     * @param elem the element
+     * @return the size in bytes
+     */
+    int encodedSize(E elem);
+
+    /**
+     * Write an element at the position of the buffer and advance the position by encodedSize(elem) bytes
+     *
+     * @param elem the element
+     * @param buffer the buffer to write to, with at least encodedSize(elem) bytes remaining
+     */
+    void encode(E elem, ByteBuffer buffer);
+
+    /**
+     * Read the element at the position of the buffer and advance the position past it
+     *
+     * @param buffer the buffer to read from
+     * @return the element
+     * @throws BufferUnderflowException if the buffer holds only part of the element
+     * @throws UncheckedIOException wrapping a {@link StreamCorruptedException} if the bytes cannot be an element
+     */
+    E decode(ByteBuffer buffer);
+}
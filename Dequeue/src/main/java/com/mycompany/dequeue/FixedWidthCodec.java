@@ -0,0 +1,99 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Encodes elements into a fixed number of bytes, so that they can be stored in a byte buffer slot by slot.
+ *
+ * @param <E> the element type
+ */
+public interface FixedWidthCodec<E> {
+    /**
+     * Codec for Integer values (4 bytes)
+     */
+    FixedWidthCodec<Integer> INT = new FixedWidthCodec<Integer>() {
+        @Override
+        public int width() {
+            return Integer.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Integer elem) {
+            buffer.putInt(offset, elem);
+        }
+
+        @Override
+        public Integer read(ByteBuffer buffer, int offset) {
+            return buffer.getInt(offset);
+        }
+    };
+
+    /**
+     * Codec for Long values (8 bytes)
+     */
+    FixedWidthCodec<Long> LONG = new FixedWidthCodec<Long>() {
+        @Override
+        public int width() {
+            return Long.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Long elem) {
+            buffer.putLong(offset, elem);
+        }
+
+        @Override
+        public Long read(ByteBuffer buffer, int offset) {
+            return buffer.getLong(offset);
+        }
+    };
+
+    /**
+     * Codec for Double values (8 bytes)
+     */
+    FixedWidthCodec<Double> DOUBLE = new FixedWidthCodec<Double>() {
+        @Override
+        public int width() {
+            return Double.BYTES;
+        }
+
+        @Override
+        public void write(ByteBuffer buffer, int offset, Double elem) {
+            buffer.putDouble(offset, elem);
+        }
+
+        @Override
+        public Double read(ByteBuffer buffer, int offset) {
+            return buffer.getDouble(offset);
+        }
+    };
+
+    /**
+     * Get the number of bytes of one encoded element
+     *
+     * @return the width in bytes
+     */
+    int width();
+
+    /**
+     * Write an element at the given offset, using exactly width() bytes
+     *
+     * @param buffer the buffer to write to
+     * @param offset the absolute byte offset
+     * @param elem the element
+     */
+    void write(ByteBuffer buffer, int offset, E elem);
+
+    /**
+     * Read the element stored at the given offset
+     *
+     * @param buffer the buffer to read from
+     * @param offset the absolute byte offset
+     * @return the element
+     */
+    E read(ByteBuffer buffer, int offset);
+}
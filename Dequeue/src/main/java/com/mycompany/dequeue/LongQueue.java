@@ -0,0 +1,304 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.util.ConcurrentModificationException;
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+/**
+ * A double ended queue of {@code long} values, stored in a circular {@code long[]} array.
+ * <p>
+ * It works like {@link Queue}: the capacity is a power of two, indices wrap with a bit mask,
+ * the array grows by doubling and shrinks according to a {@link ResizePolicy}.
+ * The {@code ...Long} methods push and pop unboxed values; the {@link DeQueue} methods
+ * are also available and box on the way in and out.
+ */
+public class LongQueue implements DeQueue<Long> {
+
+    //Variables
+    private long[] array;
+    private final ResizePolicy resizePolicy;
+    private int f, r, size;
+    private int modCount;
+
+    /**
+     * Constructs a new LongQueue with default capacity.
+     */
+    public LongQueue() {
+        this(Queue.DEFAULT_CAPACITY, ResizePolicy.defaultPolicy());
+    }
+
+    /**
+     * Constructs a new LongQueue that can hold at least the given number of values without resizing.
+     *
+     * @param initialCapacity The minimum number of values the queue can hold before growing.
+     */
+    public LongQueue(int initialCapacity) {
+        this(initialCapacity, ResizePolicy.defaultPolicy());
+    }
+
+    /**
+     * Constructs a new LongQueue with the given initial capacity and resize policy.
+     *
+     * @param initialCapacity The minimum number of values the queue can hold before growing.
+     * @param resizePolicy The policy that decides when the queue shrinks.
+     */
+    public LongQueue(int initialCapacity, ResizePolicy resizePolicy) {
+        array = new long[Math.max(Queue.roundUpToPowerOfTwo(initialCapacity), resizePolicy.getMinCapacity())];
+        this.resizePolicy = resizePolicy;
+        f = 0;
+        r = 0;
+        size = 0;
+    }
+
+    protected int getCapacity() {
+        return array.length;
+    }
+
+    /**
+     * Adds the specified value to the front of the queue.
+     *
+     * @param elem The value to be added to the front of the queue.
+     */
+    public void pushFirstLong(long elem) {
+        // Check for space
+        if (size == array.length) {
+            doubleCapacity();
+        }
+        f = (f - 1) & (array.length - 1);
+        array[f] = elem;
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Adds the specified value to the end of the queue.
+     *
+     * @param elem The value to be added to the end of the queue.
+     */
+    public void pushLastLong(long elem) {
+        // Check for space
+        if (size == array.length) {
+            doubleCapacity();
+        }
+        array[r] = elem;
+        r = (r + 1) & (array.length - 1);
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Removes and returns the value at the front of the queue.
+     *
+     * @return The value at the front of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public long popFirstLong() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        long elem = array[f];
+        f = (f + 1) & (array.length - 1);
+        size--;
+        modCount++;
+
+        // Check if shrinking is needed
+        if (resizePolicy.shouldShrink(size, array.length)) {
+            halfCapacity();
+        }
+        return elem;
+    }
+
+    /**
+     * Removes and returns the value at the end of the queue.
+     *
+     * @return The value at the end of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public long popLastLong() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        r = (r - 1) & (array.length - 1);
+        long elem = array[r];
+        size--;
+        modCount++;
+
+        // Check if shrinking is needed
+        if (resizePolicy.shouldShrink(size, array.length)) {
+            halfCapacity();
+        }
+        return elem;
+    }
+
+    /**
+     * Returns the value at the front of the queue without removing it.
+     *
+     * @return The value at the front of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public long firstLong() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return array[f];
+    }
+
+    /**
+     * Returns the value at the end of the queue without removing it.
+     *
+     * @return The value at the end of the queue.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public long lastLong() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return array[(r - 1) & (array.length - 1)];
+    }
+
+    @Override
+    public void pushFirst(Long elem) {
+        pushFirstLong(elem);
+    }
+
+    @Override
+    public void pushLast(Long elem) {
+        pushLastLong(elem);
+    }
+
+    @Override
+    public Long popFirst() {
+        return popFirstLong();
+    }
+
+    @Override
+    public Long popLast() {
+        return popLastLong();
+    }
+
+    @Override
+    public Long first() {
+        return firstLong();
+    }
+
+    @Override
+    public Long last() {
+        return lastLong();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all values from the queue.
+     * Primitive slots hold no references, so the array is kept unless the policy asks for a new one.
+     */
+    @Override
+    public void clear() {
+        if (!resizePolicy.isRetainOnClear()) {
+            array = new long[resizePolicy.getMinCapacity()];
+        }
+        f = 0;
+        r = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator over the values of the queue, from front to end, without boxing.
+     */
+    @Override
+    public PrimitiveIterator.OfLong iterator() {
+        return new IteratorImpl(false);
+    }
+
+    /**
+     * Returns an iterator over the values of the queue, from end to front, without boxing.
+     */
+    @Override
+    public PrimitiveIterator.OfLong descendingIterator() {
+        return new IteratorImpl(true);
+    }
+
+    private class IteratorImpl implements PrimitiveIterator.OfLong {
+        private final boolean descending;
+        private final int expectedModCount;
+        private int cur;
+        private int remaining;
+
+        IteratorImpl(boolean descending) {
+            this.descending = descending;
+            this.expectedModCount = modCount;
+            this.cur = descending ? (r - 1) & (array.length - 1) : f;
+            this.remaining = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public long nextLong() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            long elem = array[cur];
+            cur = (descending ? cur - 1 : cur + 1) & (array.length - 1);
+            remaining--;
+            return elem;
+        }
+    }
+
+    /**
+     * Copies the values, from front to end, into a new array.
+     *
+     * @return An array with the values of the queue.
+     */
+    public long[] toArray() {
+        long[] result = new long[size];
+        int firstBlock = Math.min(size, array.length - f);
+        System.arraycopy(array, f, result, 0, firstBlock);
+        System.arraycopy(array, 0, result, firstBlock, size - firstBlock);
+        return result;
+    }
+
+    private void doubleCapacity() {
+        if (array.length == Queue.MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Queue too big");
+        }
+        resize(2 * array.length);
+    }
+
+    private void halfCapacity() {
+        int newCapacity = resizePolicy.shrinkCapacity(size, array.length);
+        if (newCapacity < array.length) {
+            resize(newCapacity);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        long[] newArray = new long[newCapacity];
+        // Copy the live range as at most two blocks, one on each side of the wrap point
+        int firstBlock = Math.min(size, array.length - f);
+        System.arraycopy(array, f, newArray, 0, firstBlock);
+        System.arraycopy(array, 0, newArray, firstBlock, size - firstBlock);
+        f = 0;
+        r = size & (newCapacity - 1);
+        array = newArray;
+    }
+}
@@ -0,0 +1,330 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A double ended queue stored in a memory-mapped file, so that its contents survive a restart or a crash.
+ * <p>
+ * The file starts with a small header followed by the circular array of slots; each element is encoded
+ * into one slot by a {@link FixedWidthCodec}. The front (f) and the size are packed into one 8-byte
+ * header word that is written with a single store after the element itself, so the file always describes
+ * a consistent queue. The rear is not stored; it is computed as {@code (f + size) & (capacity - 1)}.
+ * Opening an existing file only reads the header, so recovery takes constant time.
+ * <p>
+ * When the queue is full, the mapping is extended to twice the capacity and the part of the live range
+ * that wrapped around the end of the old array is copied behind it and forced to disk, before the new
+ * capacity is written to the header. The file never shrinks.
+ * <p>
+ * Writes to the mapping survive a crash of the JVM. To survive a crash of the operating system, the mapping
+ * must be forced to disk: after every operation, every N operations, or on an explicit {@link #flush()},
+ * depending on the sync interval given to the constructor.
+ *
+ * @param <E> the element type
+ */
+public class MappedQueue<E> implements DeQueue<E>, AutoCloseable {
+
+    // Header layout
+    private static final int MAGIC = 0x44515545; // "DQUE"
+    private static final int VERSION = 1;
+    private static final int MAGIC_OFFSET = 0;
+    private static final int VERSION_OFFSET = 4;
+    private static final int WIDTH_OFFSET = 8;
+    private static final int CAPACITY_OFFSET = 12;
+    private static final int STATE_OFFSET = 16; // (f << 32) | size, 8-byte aligned
+    private static final int HEADER_SIZE = 64;
+
+    //Variables
+    private final FileChannel channel;
+    private final FixedWidthCodec<E> codec;
+    private final int width;
+    private final int maximumCapacity;
+    private final int syncInterval;
+    private MappedByteBuffer buffer;
+    private int capacity;
+    private int f, size;
+    private int opsSinceSync;
+    private int modCount;
+
+    /**
+     * Opens the queue stored in the given file, or creates a new one.
+     *
+     * @param file The file that holds the queue.
+     * @param codec The codec that encodes the elements.
+     * @param initialCapacity The minimum number of elements a new queue can hold before growing; ignored for an existing file.
+     * @param syncInterval Force the mapping to disk after this many operations: 1 for every operation, 0 for explicit {@link #flush()} only.
+     * @throws IOException If the file cannot be opened or mapped, or is not a queue file written with the same codec width.
+     */
+    public MappedQueue(Path file, FixedWidthCodec<E> codec, int initialCapacity, int syncInterval) throws IOException {
+        if (syncInterval < 0) {
+            throw new IllegalArgumentException("Illegal sync interval: " + syncInterval);
+        }
+        this.codec = codec;
+        this.width = codec.width();
+        this.maximumCapacity = Integer.highestOneBit((Integer.MAX_VALUE - HEADER_SIZE) / width);
+        this.syncInterval = syncInterval;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            if (channel.size() >= HEADER_SIZE) {
+                recover();
+            } else {
+                int slots = Queue.roundUpToPowerOfTwo(initialCapacity);
+                if (slots > maximumCapacity) {
+                    throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+                }
+                map(slots);
+                buffer.putInt(MAGIC_OFFSET, MAGIC);
+                buffer.putInt(VERSION_OFFSET, VERSION);
+                buffer.putInt(WIDTH_OFFSET, width);
+                buffer.putInt(CAPACITY_OFFSET, slots);
+                writeState();
+                buffer.force();
+            }
+        } catch (IOException | RuntimeException e) {
+            channel.close();
+            throw e;
+        }
+    }
+
+    /**
+     * Reads the header of an existing file; the elements themselves are not touched.
+     */
+    private void recover() throws IOException {
+        MappedByteBuffer header = channel.map(FileChannel.MapMode.READ_ONLY, 0, HEADER_SIZE);
+        if (header.getInt(MAGIC_OFFSET) != MAGIC || header.getInt(VERSION_OFFSET) != VERSION) {
+            throw new IOException("Not a queue file");
+        }
+        if (header.getInt(WIDTH_OFFSET) != width) {
+            throw new IOException("Element width " + header.getInt(WIDTH_OFFSET) + " does not match codec width " + width);
+        }
+        int slots = header.getInt(CAPACITY_OFFSET);
+        if (Integer.bitCount(slots) != 1 || slots > maximumCapacity) {
+            throw new IOException("Corrupt capacity: " + slots);
+        }
+        long state = header.getLong(STATE_OFFSET);
+        map(slots);
+        f = (int) (state >>> 32);
+        size = (int) state;
+        if (f < 0 || f >= slots || size < 0 || size > slots) {
+            throw new IOException("Corrupt header");
+        }
+    }
+
+    private void map(int slots) throws IOException {
+        buffer = channel.map(FileChannel.MapMode.READ_WRITE, 0, HEADER_SIZE + (long) slots * width);
+        capacity = slots;
+    }
+
+    protected int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void pushFirst(E elem) {
+        if (elem == null) {
+            throw new NullPointerException();
+        }
+        // Check for space
+        if (size == capacity) {
+            doubleCapacity();
+        }
+        int newF = (f - 1) & (capacity - 1);
+        codec.write(buffer, offset(newF), elem);
+        f = newF;
+        size++;
+        committed();
+    }
+
+    @Override
+    public void pushLast(E elem) {
+        if (elem == null) {
+            throw new NullPointerException();
+        }
+        // Check for space
+        if (size == capacity) {
+            doubleCapacity();
+        }
+        codec.write(buffer, offset(rear()), elem);
+        size++;
+        committed();
+    }
+
+    @Override
+    public E popFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        E elem = codec.read(buffer, offset(f));
+        f = (f + 1) & (capacity - 1);
+        size--;
+        committed();
+        return elem;
+    }
+
+    @Override
+    public E popLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        E elem = codec.read(buffer, offset((f + size - 1) & (capacity - 1)));
+        size--;
+        committed();
+        return elem;
+    }
+
+    @Override
+    public E first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return codec.read(buffer, offset(f));
+    }
+
+    @Override
+    public E last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return codec.read(buffer, offset((f + size - 1) & (capacity - 1)));
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all elements. Only the header is rewritten; the file keeps its size.
+     */
+    @Override
+    public void clear() {
+        f = 0;
+        size = 0;
+        committed();
+    }
+
+    /**
+     * Forces all changes of the mapping to the storage device.
+     */
+    public void flush() {
+        buffer.force();
+        opsSinceSync = 0;
+    }
+
+    /**
+     * Flushes the queue and closes the file.
+     *
+     * @throws IOException If the file cannot be closed.
+     */
+    @Override
+    public void close() throws IOException {
+        flush();
+        channel.close();
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new IteratorImpl(false);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new IteratorImpl(true);
+    }
+
+    private class IteratorImpl implements Iterator<E> {
+        private final boolean descending;
+        private final int expectedModCount;
+        private int cur;
+        private int remaining;
+
+        IteratorImpl(boolean descending) {
+            this.descending = descending;
+            this.expectedModCount = modCount;
+            this.cur = descending ? (f + size - 1) & (capacity - 1) : f;
+            this.remaining = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            E elem = codec.read(buffer, offset(cur));
+            cur = (descending ? cur - 1 : cur + 1) & (capacity - 1);
+            remaining--;
+            return elem;
+        }
+    }
+
+    private int rear() {
+        return (f + size) & (capacity - 1);
+    }
+
+    private int offset(int slot) {
+        return HEADER_SIZE + slot * width;
+    }
+
+    private void writeState() {
+        // A single aligned 8-byte store, so f and size always change together
+        buffer.putLong(STATE_OFFSET, ((long) f << 32) | (size & 0xFFFFFFFFL));
+    }
+
+    // Publishes the new state after an operation and syncs if the interval is reached
+    private void committed() {
+        writeState();
+        modCount++;
+        if (syncInterval > 0 && ++opsSinceSync >= syncInterval) {
+            flush();
+        }
+    }
+
+    private void doubleCapacity() {
+        if (capacity == maximumCapacity) {
+            throw new IllegalStateException("Queue too big");
+        }
+        int oldCapacity = capacity;
+        try {
+            map(2 * oldCapacity);
+        } catch (IOException e) {
+            throw new UncheckedIOException(e);
+        }
+
+        // The queue is full, so the elements that wrapped around are in slots [0, f).
+        // Copy them right behind the old end of the array, which keeps f and makes the range contiguous.
+        buffer.put(offset(oldCapacity), buffer, offset(0), f * width);
+        // The OS may write the pages of the mapping back in any order: force the copy to disk before the
+        // header names the new capacity, so the file never describes slots that were not written yet
+        if (f > 0) {
+            buffer.force(offset(oldCapacity), f * width);
+        }
+
+        // Only now publish the new capacity; until then the old layout is still valid, in memory and on disk
+        buffer.putInt(CAPACITY_OFFSET, capacity);
+        buffer.force();
+    }
+}
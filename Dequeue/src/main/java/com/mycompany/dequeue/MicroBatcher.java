@@ -0,0 +1,228 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Objects;
+import java.util.RandomAccess;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A consumer stage that takes elements from a {@link BlockingDeQueue} and hands them to a handler in batches.
+ * <p>
+ * A batch is delivered as soon as {@code maxBatchSize} elements are queued, or when the linger time has passed
+ * since its first element arrived, whichever comes first. The elements are moved into one reusable array with
+ * {@link DeQueue#popFirst(int, Object[], int)}, which copies them out of the circular array as at most two blocks
+ * right behind the first element, so a batch costs two lock acquisitions (the first element, then the rest), no
+ * allocation and no further copying. The handler sees the batch as a read-only
+ * {@link List} over that array; the same list is reused for the next batch, so it must not be kept.
+ * <p>
+ * The stage runs on one thread from the given {@link ThreadFactory}: pass a virtual thread factory
+ * ({@code Thread.ofVirtual().factory()}) on a JDK that has them, or use the constructor without a factory
+ * for a dedicated daemon thread. {@link #close()} delivers the elements that are still queued, without
+ * lingering, and then stops the thread. A handler that throws is reported to the thread's uncaught
+ * exception handler and the stage carries on with the next batch.
+ *
+ * @param <E> the element type
+ */
+public class MicroBatcher<E> implements AutoCloseable {
+
+    // How long the idle stage blocks for a first element before it checks whether it was closed
+    private static final long IDLE_POLL_MILLIS = 50;
+
+    //Variables
+    private final BlockingDeQueue<E> source;
+    private final int maxBatchSize;
+    private final long lingerNanos;
+    private final Consumer<? super List<E>> handler;
+    private final E[] buffer;
+    private final BatchView<E> batch;
+    private final Thread thread;
+    private volatile boolean closed;
+    // Whether the stage waits for a batch to fill; guarded by lingerLock, so close() interrupts only that wait
+    private final Object lingerLock = new Object();
+    private boolean lingering;
+    // Written only by the stage thread
+    private volatile long batchCount, elementCount;
+
+    /**
+     * Constructs a new MicroBatcher that runs on a dedicated daemon thread and starts it.
+     *
+     * @param source The queue to take elements from.
+     * @param maxBatchSize The maximum number of elements in a batch.
+     * @param linger How long to wait for a batch to fill up after its first element arrived.
+     * @param unit The unit of the linger time.
+     * @param handler The handler that receives the batches.
+     */
+    public MicroBatcher(BlockingDeQueue<E> source, int maxBatchSize, long linger, TimeUnit unit, Consumer<? super List<E>> handler) {
+        this(source, maxBatchSize, linger, unit, handler, runnable -> {
+            Thread thread = new Thread(runnable, "micro-batcher");
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Constructs a new MicroBatcher that runs on a thread from the given factory and starts it.
+     *
+     * @param source The queue to take elements from.
+     * @param maxBatchSize The maximum number of elements in a batch.
+     * @param linger How long to wait for a batch to fill up after its first element arrived.
+     * @param unit The unit of the linger time.
+     * @param handler The handler that receives the batches.
+     * @param threadFactory The factory that creates the thread of the stage.
+     * @throws IllegalArgumentException If the batch size is not positive or the linger time is negative.
+     */
+    public MicroBatcher(BlockingDeQueue<E> source, int maxBatchSize, long linger, TimeUnit unit,
+            Consumer<? super List<E>> handler, ThreadFactory threadFactory) {
+        if (maxBatchSize <= 0) {
+            throw new IllegalArgumentException("Illegal batch size: " + maxBatchSize);
+        }
+        if (linger < 0) {
+            throw new IllegalArgumentException("Illegal linger time: " + linger);
+        }
+        this.source = source;
+        this.maxBatchSize = maxBatchSize;
+        this.lingerNanos = unit.toNanos(linger);
+        this.handler = handler;
+        buffer = (E[]) new Object[maxBatchSize];
+        batch = new BatchView<>(buffer);
+        thread = threadFactory.newThread(this::run);
+        thread.start();
+    }
+
+    /**
+     * Returns the number of batches delivered so far.
+     *
+     * @return The number of batches.
+     */
+    public long getBatchCount() {
+        return batchCount;
+    }
+
+    /**
+     * Returns the number of elements delivered so far.
+     *
+     * @return The number of elements.
+     */
+    public long getElementCount() {
+        return elementCount;
+    }
+
+    /**
+     * Delivers the elements that are still queued, without lingering, and waits for the stage to stop.
+     * Elements pushed after this call may not be delivered. If the calling thread is interrupted while
+     * waiting, it stops waiting and its interrupt status is set again; the stage still finishes on its own.
+     */
+    @Override
+    public void close() {
+        closed = true;
+        synchronized (lingerLock) {
+            if (lingering) {
+                thread.interrupt();
+            }
+        }
+        if (thread != Thread.currentThread()) {
+            try {
+                thread.join();
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    private void run() {
+        while (true) {
+            E first;
+            try {
+                first = source.pollFirst(IDLE_POLL_MILLIS, TimeUnit.MILLISECONDS);
+            } catch (InterruptedException e) {
+                // Interruption stops the stage like close()
+                closed = true;
+                first = null;
+            }
+            if (first == null) {
+                if (closed && source.isEmpty()) {
+                    return;
+                }
+                continue;
+            }
+            linger();
+
+            // The first element is already out of the queue: pop the rest behind it
+            buffer[0] = first;
+            int n = source.popFirst(maxBatchSize - 1, buffer, 1);
+            deliver(n + 1);
+        }
+    }
+
+    // Waits until the rest of a batch is queued, the linger time has passed or the stage is closed
+    private void linger() {
+        synchronized (lingerLock) {
+            if (closed) {
+                return;
+            }
+            lingering = true;
+        }
+        try {
+            source.awaitSize(maxBatchSize - 1, lingerNanos, TimeUnit.NANOSECONDS);
+        } catch (InterruptedException e) {
+            // Interrupted by close(), or from outside, which stops the stage like close()
+            closed = true;
+        } finally {
+            synchronized (lingerLock) {
+                lingering = false;
+                // An interrupt that arrives after the wait ended must not reach the handler
+                if (Thread.interrupted()) {
+                    closed = true;
+                }
+            }
+        }
+    }
+
+    private void deliver(int size) {
+        try {
+            batch.size = size;
+            handler.accept(batch);
+        } catch (RuntimeException | Error e) {
+            Thread.UncaughtExceptionHandler exceptionHandler = thread.getUncaughtExceptionHandler();
+            if (exceptionHandler != null) {
+                exceptionHandler.uncaughtException(thread, e);
+            }
+        } finally {
+            // Let the elements be garbage collected before the next batch
+            Arrays.fill(buffer, 0, size, null);
+            batch.size = 0;
+            batchCount++;
+            elementCount += size;
+        }
+    }
+
+    // A read-only list over the first size elements of the reusable buffer
+    private static final class BatchView<E> extends AbstractList<E> implements RandomAccess {
+
+        private final E[] elements;
+        private int size;
+
+        BatchView(E[] elements) {
+            this.elements = elements;
+        }
+
+        @Override
+        public E get(int index) {
+            Objects.checkIndex(index, size);
+            return elements[index];
+        }
+
+        @Override
+        public int size() {
+            return size;
+        }
+    }
+}
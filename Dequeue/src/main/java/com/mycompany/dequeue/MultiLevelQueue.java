@@ -0,0 +1,359 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.function.Consumer;
+
+/**
+ * A priority-aware double ended queue made of up to 64 {@link Queue} lanes.
+ * <p>
+ * Lane 0 has the highest priority. The front of the whole queue is the front of the highest-priority
+ * non-empty lane and the end is the end of the lowest-priority non-empty lane. A bitmap with one bit per
+ * lane records which lanes are non-empty, so that lane is found with {@link Long#numberOfTrailingZeros(long)}
+ * (or {@link Long#numberOfLeadingZeros(long)}) in constant time, however many lanes there are.
+ * <p>
+ * Besides strict priority, {@link #popWeighted()} drains the lanes in weighted round-robin order,
+ * taking up to {@code weight} elements from a lane before moving on to the next non-empty one,
+ * so that low-priority lanes are not starved.
+ * <p>
+ * The {@link DeQueue} push methods use the default lane; the methods with a lane parameter choose the lane.
+ *
+ * @param <E> the element type
+ */
+public class MultiLevelQueue<E> implements DeQueue<E> {
+
+    private static final int MAX_LANES = Long.SIZE;
+
+    //Variables
+    private final Queue<E>[] lanes;
+    private final int defaultLane;
+    private final int[] weights;
+    // Bit i is set if lane i is not empty
+    private long occupied;
+    private int size;
+    private int modCount;
+    // Weighted round-robin state: the lane being served and how many elements it may still give
+    private int currentLane;
+    private int credit;
+
+    /**
+     * Constructs a new MultiLevelQueue in which every lane has weight 1 and the lowest-priority lane is the default.
+     *
+     * @param laneCount The number of lanes, from 1 to 64.
+     */
+    public MultiLevelQueue(int laneCount) {
+        this(weightsOfOne(laneCount), laneCount - 1);
+    }
+
+    /**
+     * Constructs a new MultiLevelQueue.
+     *
+     * @param weights The weight of each lane for {@link #popWeighted()}; the length is the number of lanes.
+     * @param defaultLane The lane used by the push methods without a lane parameter.
+     * @throws IllegalArgumentException If there are not 1 to 64 lanes, a weight is not positive or the default lane does not exist.
+     */
+    public MultiLevelQueue(int[] weights, int defaultLane) {
+        if (weights.length < 1 || weights.length > MAX_LANES) {
+            throw new IllegalArgumentException("Need 1 to " + MAX_LANES + " lanes, got " + weights.length);
+        }
+        for (int weight : weights) {
+            if (weight <= 0) {
+                throw new IllegalArgumentException("Weights must be positive: " + Arrays.toString(weights));
+            }
+        }
+        if (defaultLane < 0 || defaultLane >= weights.length) {
+            throw new IllegalArgumentException("Illegal default lane: " + defaultLane);
+        }
+        this.lanes = newLanes(weights.length);
+        for (int i = 0; i < lanes.length; i++) {
+            lanes[i] = new Queue<>();
+        }
+        this.weights = weights.clone();
+        this.defaultLane = defaultLane;
+        this.currentLane = 0;
+        this.credit = weights[0];
+    }
+
+    // The only unchecked cast of the lane array, which holds nothing but Queue<E> lanes
+    @SuppressWarnings("unchecked")
+    private static <E> Queue<E>[] newLanes(int length) {
+        return (Queue<E>[]) new Queue<?>[length];
+    }
+
+    private static int[] weightsOfOne(int laneCount) {
+        if (laneCount < 1 || laneCount > MAX_LANES) {
+            throw new IllegalArgumentException("Need 1 to " + MAX_LANES + " lanes, got " + laneCount);
+        }
+        int[] weights = new int[laneCount];
+        Arrays.fill(weights, 1);
+        return weights;
+    }
+
+    /**
+     * Returns the number of lanes.
+     *
+     * @return The number of lanes.
+     */
+    public int getLaneCount() {
+        return lanes.length;
+    }
+
+    /**
+     * Returns the number of elements in one lane.
+     *
+     * @param lane The lane.
+     * @return The number of elements in the lane.
+     */
+    public int laneSize(int lane) {
+        return lanes[lane].size();
+    }
+
+    /**
+     * Adds an element to the front of the given lane.
+     *
+     * @param lane The lane; 0 is the highest priority.
+     * @param elem The element to be added.
+     */
+    public void pushFirst(int lane, E elem) {
+        lanes[lane].pushFirst(elem);
+        added(lane, 1);
+    }
+
+    /**
+     * Adds an element to the end of the given lane.
+     *
+     * @param lane The lane; 0 is the highest priority.
+     * @param elem The element to be added.
+     */
+    public void pushLast(int lane, E elem) {
+        lanes[lane].pushLast(elem);
+        added(lane, 1);
+    }
+
+    /**
+     * Adds all elements of the array to the end of the given lane, as a bulk copy.
+     *
+     * @param lane The lane; 0 is the highest priority.
+     * @param elems The elements to be added, in order.
+     */
+    public void pushAllLast(int lane, E[] elems) {
+        lanes[lane].pushAllLast(elems);
+        added(lane, elems.length);
+    }
+
+    /**
+     * Removes up to n elements from the front of the given lane, as a bulk copy.
+     *
+     * @param lane The lane.
+     * @param n The maximum number of elements to remove.
+     * @param dst The array that receives the elements, front first.
+     * @return The number of elements removed.
+     */
+    public int popFirst(int lane, int n, E[] dst) {
+        int count = lanes[lane].popFirst(n, dst);
+        removed(lane, count);
+        return count;
+    }
+
+    /**
+     * Removes all elements of the given lane and passes them to the action, front first.
+     *
+     * @param lane The lane.
+     * @param action The action that receives the elements.
+     * @return The number of elements removed.
+     */
+    public int drainLane(int lane, Consumer<? super E> action) {
+        int count = lanes[lane].size();
+        Queue<E> drained = lanes[lane];
+        // Detach the lane first, so that the action may push into this queue
+        lanes[lane] = new Queue<>();
+        removed(lane, count);
+        drained.forEach(action);
+        return count;
+    }
+
+    @Override
+    public void pushFirst(E elem) {
+        pushFirst(defaultLane, elem);
+    }
+
+    @Override
+    public void pushLast(E elem) {
+        pushLast(defaultLane, elem);
+    }
+
+    /**
+     * Removes and returns the first element of the highest-priority non-empty lane.
+     *
+     * @return The element.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    @Override
+    public E popFirst() {
+        if (occupied == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        int lane = Long.numberOfTrailingZeros(occupied);
+        E elem = lanes[lane].popFirst();
+        removed(lane, 1);
+        return elem;
+    }
+
+    /**
+     * Removes and returns the last element of the lowest-priority non-empty lane.
+     *
+     * @return The element.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    @Override
+    public E popLast() {
+        if (occupied == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        int lane = MAX_LANES - 1 - Long.numberOfLeadingZeros(occupied);
+        E elem = lanes[lane].popLast();
+        removed(lane, 1);
+        return elem;
+    }
+
+    /**
+     * Removes and returns the next element in weighted round-robin order.
+     * The current lane gives up to its weight in elements; then the next non-empty lane
+     * (in priority order, wrapping around) is served.
+     *
+     * @return The element.
+     * @throws NoSuchElementException If the queue is empty.
+     */
+    public E popWeighted() {
+        if (occupied == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        int lane = nextOccupied(currentLane);
+        if (lane != currentLane) {
+            currentLane = lane;
+            credit = weights[lane];
+        }
+        E elem = lanes[lane].popFirst();
+        removed(lane, 1);
+
+        // Move on once the lane has used up its share
+        if (--credit == 0) {
+            currentLane = (lane + 1) % lanes.length;
+            credit = weights[currentLane];
+        }
+        return elem;
+    }
+
+    @Override
+    public E first() {
+        if (occupied == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return lanes[Long.numberOfTrailingZeros(occupied)].first();
+    }
+
+    @Override
+    public E last() {
+        if (occupied == 0) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return lanes[MAX_LANES - 1 - Long.numberOfLeadingZeros(occupied)].last();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        for (Queue<E> lane : lanes) {
+            lane.clear();
+        }
+        occupied = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator over all elements, lane by lane from the highest priority.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new IteratorImpl(false);
+    }
+
+    /**
+     * Returns an iterator over all elements, lane by lane from the lowest priority, each lane from its end.
+     */
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new IteratorImpl(true);
+    }
+
+    private class IteratorImpl implements Iterator<E> {
+        private final boolean descending;
+        private final int expectedModCount = modCount;
+        private long pending = occupied;
+        private Iterator<E> laneIterator;
+
+        IteratorImpl(boolean descending) {
+            this.descending = descending;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return (laneIterator != null && laneIterator.hasNext()) || pending != 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (laneIterator == null || !laneIterator.hasNext()) {
+                if (pending == 0) {
+                    throw new NoSuchElementException();
+                }
+                // Go to the next non-empty lane and clear its bit
+                int lane = descending ? MAX_LANES - 1 - Long.numberOfLeadingZeros(pending) : Long.numberOfTrailingZeros(pending);
+                pending &= ~(1L << lane);
+                laneIterator = descending ? lanes[lane].descendingIterator() : lanes[lane].iterator();
+            }
+            return laneIterator.next();
+        }
+    }
+
+    // The first non-empty lane at or after the given one, wrapping around
+    private int nextOccupied(int lane) {
+        long atOrAfter = occupied & (-1L << lane);
+        return Long.numberOfTrailingZeros(atOrAfter != 0 ? atOrAfter : occupied);
+    }
+
+    private void added(int lane, int count) {
+        if (count > 0) {
+            occupied |= 1L << lane;
+            size += count;
+            modCount++;
+        }
+    }
+
+    private void removed(int lane, int count) {
+        if (lanes[lane].isEmpty()) {
+            occupied &= ~(1L << lane);
+        }
+        size -= count;
+        modCount++;
+    }
+}
@@ -0,0 +1,273 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.Arrays;
+import java.util.function.Consumer;
+import java.util.function.Supplier;
+
+/**
+ * A single-producer ring that delivers every event to several readers, in the style of the LMAX Disruptor.
+ * <p>
+ * It uses the circular array of {@link Queue} (power-of-two capacity, indices wrapped with a bit mask) with
+ * ever-increasing sequences, like {@link SpscQueue}. The slots are created once by a factory and then reused:
+ * the producer fills a slot in place and publishes its sequence with a release store, and every {@link Reader}
+ * has its own sequence, which it advances with a release store after it has processed a batch. Fanning an
+ * event out to N readers therefore costs one write plus N sequence reads, and no element is ever copied.
+ * <p>
+ * The producer never overwrites a slot that a reader has not processed yet (it is gated on the slowest reader).
+ * A reader can depend on other readers: it then only sees an event after all of them have processed it,
+ * so readers can form a pipeline over the same slots.
+ * <p>
+ * The producer's and each reader's sequence are padded onto separate cache lines.
+ * Slots are reused, so a reader must copy whatever it needs to keep from a slot before it returns.
+ *
+ * @param <E> the type of the mutable event held in each slot
+ */
+public class MulticastRing<E> extends MulticastProducerFields {
+
+    private static final VarHandle CURSOR;
+    private static final VarHandle SEQUENCE;
+    private static final int SPINS = 100;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            CURSOR = lookup.findVarHandle(MulticastProducerFields.class, "cursor", long.class);
+            SEQUENCE = lookup.findVarHandle(MulticastReaderFields.class, "sequence", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    //Variables
+    private final E[] slots;
+    private final int mask;
+    // The readers' sequences, copied on write; the producer reads it when it refreshes its gate
+    private volatile MulticastReaderFields[] readers = new MulticastReaderFields[0];
+
+    // Padding after the producer fields
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+
+    /**
+     * Constructs a new MulticastRing and fills every slot with an event from the factory.
+     *
+     * @param capacity The minimum number of slots; rounded up to a power of two.
+     * @param factory The factory that creates the events.
+     */
+    public MulticastRing(int capacity, Supplier<? extends E> factory) {
+        slots = (E[]) new Object[Queue.roundUpToPowerOfTwo(capacity)];
+        mask = slots.length - 1;
+        for (int i = 0; i < slots.length; i++) {
+            slots[i] = factory.get();
+        }
+        cursor = -1;
+        cachedGate = -1;
+    }
+
+    /**
+     * Returns the capacity of the ring.
+     *
+     * @return The number of slots.
+     */
+    public int capacity() {
+        return slots.length;
+    }
+
+    /**
+     * Returns the sequence of the last published event; the first event has sequence 0.
+     *
+     * @return The sequence of the last published event, or -1 if nothing has been published.
+     */
+    public long getCursor() {
+        return (long) CURSOR.getAcquire(this);
+    }
+
+    /**
+     * Adds a reader that sees every event published from now on.
+     * Readers are normally added before the producer starts.
+     *
+     * @param dependencies The readers that must have processed an event before the new reader sees it.
+     * @return The new reader.
+     */
+    @SafeVarargs
+    public final synchronized Reader newReader(Reader... dependencies) {
+        // Copied element by element, the varargs array itself never escapes
+        MulticastReaderFields[] gates = new MulticastReaderFields[dependencies.length];
+        for (int i = 0; i < dependencies.length; i++) {
+            if (dependencies[i].ring() != this) {
+                throw new IllegalArgumentException("Dependency belongs to another ring");
+            }
+            gates[i] = dependencies[i];
+        }
+        Reader reader = new Reader(gates, getCursor());
+        MulticastReaderFields[] current = readers;
+        MulticastReaderFields[] updated = Arrays.copyOf(current, current.length + 1);
+        updated[current.length] = reader;
+        readers = updated;
+        return reader;
+    }
+
+    /**
+     * Removes a reader, so that the producer no longer waits for it.
+     * Readers that depend on it must be removed first.
+     *
+     * @param reader The reader to remove.
+     */
+    public synchronized void removeReader(Reader reader) {
+        MulticastReaderFields[] current = readers;
+        for (int i = 0; i < current.length; i++) {
+            if (current[i] == reader) {
+                MulticastReaderFields[] updated = new MulticastReaderFields[current.length - 1];
+                System.arraycopy(current, 0, updated, 0, i);
+                System.arraycopy(current, i + 1, updated, i, current.length - i - 1);
+                readers = updated;
+                return;
+            }
+        }
+    }
+
+    /**
+     * Fills the next slot with the translator and publishes it, unless the slowest reader is a full ring behind.
+     * Must only be called from the producer thread.
+     *
+     * @param translator The action that writes the event into the slot.
+     * @return {@code true} if the event was published, {@code false} if the ring is full.
+     */
+    public boolean tryPublish(Consumer<? super E> translator) {
+        long next = cursor + 1;
+        // The slot of next last held next - capacity, which every reader must have processed
+        if (next - cachedGate > slots.length) {
+            cachedGate = minimumSequence(next - 1);
+            if (next - cachedGate > slots.length) {
+                return false;
+            }
+        }
+        translator.accept(slots[(int) next & mask]);
+
+        // Publish the event to the readers
+        CURSOR.setRelease(this, next);
+        return true;
+    }
+
+    /**
+     * Fills the next slot with the translator and publishes it, waiting while the ring is full.
+     * Must only be called from the producer thread.
+     *
+     * @param translator The action that writes the event into the slot.
+     */
+    public void publish(Consumer<? super E> translator) {
+        int spins = 0;
+        while (!tryPublish(translator)) {
+            if (++spins < SPINS) {
+                Thread.onSpinWait();
+            } else {
+                Thread.yield();
+            }
+        }
+    }
+
+    private long minimumSequence(long minimum) {
+        for (MulticastReaderFields reader : readers) {
+            minimum = Math.min(minimum, (long) SEQUENCE.getAcquire(reader));
+        }
+        return minimum;
+    }
+
+    /**
+     * A reader of the ring with its own sequence. Each reader must only be used from one thread.
+     */
+    public final class Reader extends MulticastReaderFields {
+
+        private final MulticastReaderFields[] dependencies;
+
+        // Padding after the reader fields
+        long p10, p11, p12, p13, p14, p15, p16, p17;
+
+        private Reader(MulticastReaderFields[] dependencies, long start) {
+            this.dependencies = dependencies;
+            sequence = start;
+        }
+
+        private MulticastRing<E> ring() {
+            return MulticastRing.this;
+        }
+
+        /**
+         * Returns the sequence of the last event this reader has processed.
+         *
+         * @return The sequence of the last processed event.
+         */
+        public long getSequence() {
+            return (long) SEQUENCE.getAcquire(this);
+        }
+
+        /**
+         * Passes every available event to the action.
+         *
+         * @param action The action that receives the events, in order.
+         * @return The number of events processed.
+         */
+        public int drain(Consumer<? super E> action) {
+            return drain(action, Integer.MAX_VALUE);
+        }
+
+        /**
+         * Passes up to {@code limit} available events to the action. The producer's and the dependencies'
+         * sequences are read once and this reader's sequence is published once for the whole batch.
+         *
+         * @param action The action that receives the events, in order.
+         * @param limit The maximum number of events to process.
+         * @return The number of events processed, 0 if {@code limit} is not positive.
+         */
+        public int drain(Consumer<? super E> action, int limit) {
+            if (limit <= 0) {
+                return 0;
+            }
+            long seq = sequence;
+            long available = availableSequence();
+            if (available <= seq) {
+                return 0;
+            }
+            long end = seq + Math.min(available - seq, limit);
+            for (long s = seq + 1; s <= end; s++) {
+                action.accept(slots[(int) s & mask]);
+            }
+
+            // Hand the slots back to the producer and the readers that depend on this one
+            SEQUENCE.setRelease(this, end);
+            return (int) (end - seq);
+        }
+
+        private long availableSequence() {
+            long available = (long) CURSOR.getAcquire(MulticastRing.this);
+            for (MulticastReaderFields dependency : dependencies) {
+                available = Math.min(available, (long) SEQUENCE.getAcquire(dependency));
+            }
+            return available;
+        }
+    }
+}
+
+// The field layout below keeps the producer's fields and each reader's fields on separate cache lines.
+// Fields of a superclass are laid out before the fields of its subclasses.
+
+abstract class MulticastPad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class MulticastProducerFields extends MulticastPad0 {
+    // Sequence of the last published event, written only by the producer
+    long cursor;
+    // The producer's last known sequence of the slowest reader
+    long cachedGate;
+}
+
+abstract class MulticastReaderFields extends MulticastPad0 {
+    // Sequence of the last processed event, written only by the reader
+    long sequence;
+}
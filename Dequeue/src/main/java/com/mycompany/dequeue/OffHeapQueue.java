@@ -0,0 +1,258 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.nio.ByteBuffer;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A double ended queue whose elements are stored outside the Java heap.
+ * <p>
+ * The elements are encoded by a {@link FixedWidthCodec} into the slots of a direct {@link ByteBuffer}.
+ * The buffer is used as a circular array exactly like the array of {@link Queue}: the front (f) and
+ * rear (r) are slot indices, the number of slots is a power of two, the buffer doubles when it is full
+ * and shrinks according to a {@link ResizePolicy}. Since the stored elements are plain bytes,
+ * the garbage collector never has to scan them.
+ * <p>
+ * {@code null} elements are not allowed.
+ *
+ * @param <E> the element type
+ */
+public class OffHeapQueue<E> implements DeQueue<E> {
+
+    //Variables
+    private final FixedWidthCodec<E> codec;
+    private final int width;
+    private final int maximumCapacity;
+    private final ResizePolicy resizePolicy;
+    private ByteBuffer buffer;
+    private int capacity;
+    private int f, r, size;
+    private int modCount;
+
+    /**
+     * Constructs a new OffHeapQueue with default capacity.
+     *
+     * @param codec The codec that encodes the elements.
+     */
+    public OffHeapQueue(FixedWidthCodec<E> codec) {
+        this(codec, Queue.DEFAULT_CAPACITY, ResizePolicy.defaultPolicy());
+    }
+
+    /**
+     * Constructs a new OffHeapQueue.
+     *
+     * @param codec The codec that encodes the elements.
+     * @param initialCapacity The minimum number of elements the queue can hold before growing.
+     * @param resizePolicy The policy that decides when the queue shrinks.
+     */
+    public OffHeapQueue(FixedWidthCodec<E> codec, int initialCapacity, ResizePolicy resizePolicy) {
+        if (codec.width() <= 0) {
+            throw new IllegalArgumentException("Illegal codec width: " + codec.width());
+        }
+        this.codec = codec;
+        this.width = codec.width();
+        // The buffer size in bytes must fit in an int
+        this.maximumCapacity = Integer.highestOneBit(Integer.MAX_VALUE / width);
+        this.resizePolicy = resizePolicy;
+        int slots = Math.max(Queue.roundUpToPowerOfTwo(initialCapacity), resizePolicy.getMinCapacity());
+        if (slots > maximumCapacity) {
+            throw new IllegalArgumentException("Illegal capacity: " + initialCapacity);
+        }
+        allocate(slots);
+    }
+
+    protected int getCapacity() {
+        return capacity;
+    }
+
+    @Override
+    public void pushFirst(E elem) {
+        if (elem == null) {
+            throw new NullPointerException();
+        }
+        // Check for space
+        if (size == capacity) {
+            doubleCapacity();
+        }
+        f = (f - 1) & (capacity - 1);
+        codec.write(buffer, f * width, elem);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void pushLast(E elem) {
+        if (elem == null) {
+            throw new NullPointerException();
+        }
+        // Check for space
+        if (size == capacity) {
+            doubleCapacity();
+        }
+        codec.write(buffer, r * width, elem);
+        r = (r + 1) & (capacity - 1);
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public E popFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        E elem = codec.read(buffer, f * width);
+        f = (f + 1) & (capacity - 1);
+        size--;
+        modCount++;
+
+        // Check if shrinking is needed
+        if (resizePolicy.shouldShrink(size, capacity)) {
+            halfCapacity();
+        }
+        return elem;
+    }
+
+    @Override
+    public E popLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        r = (r - 1) & (capacity - 1);
+        E elem = codec.read(buffer, r * width);
+        size--;
+        modCount++;
+
+        // Check if shrinking is needed
+        if (resizePolicy.shouldShrink(size, capacity)) {
+            halfCapacity();
+        }
+        return elem;
+    }
+
+    @Override
+    public E first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return codec.read(buffer, f * width);
+    }
+
+    @Override
+    public E last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return codec.read(buffer, ((r - 1) & (capacity - 1)) * width);
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all elements. The slots hold no references, so nothing needs to be overwritten;
+     * the buffer is kept or replaced by a minimum-sized one depending on the resize policy.
+     */
+    @Override
+    public void clear() {
+        if (!resizePolicy.isRetainOnClear()) {
+            allocate(resizePolicy.getMinCapacity());
+        }
+        f = 0;
+        r = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator that decodes the elements from front to end.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new IteratorImpl(false);
+    }
+
+    /**
+     * Returns an iterator that decodes the elements from end to front.
+     */
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new IteratorImpl(true);
+    }
+
+    private class IteratorImpl implements Iterator<E> {
+        private final boolean descending;
+        private final int expectedModCount;
+        private int cur;
+        private int remaining;
+
+        IteratorImpl(boolean descending) {
+            this.descending = descending;
+            this.expectedModCount = modCount;
+            this.cur = descending ? (r - 1) & (capacity - 1) : f;
+            this.remaining = size;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            E elem = codec.read(buffer, cur * width);
+            cur = (descending ? cur - 1 : cur + 1) & (capacity - 1);
+            remaining--;
+            return elem;
+        }
+    }
+
+    private void allocate(int slots) {
+        buffer = ByteBuffer.allocateDirect(slots * width);
+        capacity = slots;
+    }
+
+    private void doubleCapacity() {
+        if (capacity == maximumCapacity) {
+            throw new IllegalStateException("Queue too big");
+        }
+        resize(2 * capacity);
+    }
+
+    private void halfCapacity() {
+        int newCapacity = resizePolicy.shrinkCapacity(size, capacity);
+        if (newCapacity < capacity) {
+            resize(newCapacity);
+        }
+    }
+
+    private void resize(int newCapacity) {
+        ByteBuffer oldBuffer = buffer;
+        allocate(newCapacity);
+
+        // Copy the live range as at most two blocks of bytes, one on each side of the wrap point
+        int firstBlock = Math.min(size, oldBuffer.capacity() / width - f);
+        buffer.put(0, oldBuffer, f * width, firstBlock * width);
+        buffer.put(firstBlock * width, oldBuffer, 0, (size - firstBlock) * width);
+
+        f = 0;
+        r = size & (newCapacity - 1);
+    }
+}
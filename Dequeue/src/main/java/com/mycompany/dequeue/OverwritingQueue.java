@@ -0,0 +1,244 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A fixed-capacity ring that keeps the latest elements: when it is full, {@link #pushLast(Object)}
+ * overwrites the oldest element instead of growing.
+ * <p>
+ * It uses the circular array of {@link Queue} (power-of-two length, indices wrapped with a bit mask),
+ * but the array is allocated once and never resized, so its footprint stays constant. The array may be
+ * longer than the capacity, yet the ring keeps exactly {@code capacity} elements: the size is capped at
+ * the capacity rather than at the array length. Only the rear index and the size are stored; the front is
+ * {@code (r - size) & mask}. A push clears the slot {@code capacity} places behind the rear (the oldest
+ * element when the ring is full, an unused slot otherwise), stores the element, increments the rear and
+ * caps the size with {@code Math.min}, with no branch on whether the ring is full.
+ * <p>
+ * {@link #snapshot(Object[])} copies the current elements into a caller-supplied array as at most
+ * two blocks, so that the latest entries can be read repeatedly without allocating.
+ *
+ * @param <E> the element type
+ */
+public class OverwritingQueue<E> implements DeQueue<E> {
+
+    //Variables
+    private final E[] array;
+    private final int capacity;
+    private int r, size;
+    private int modCount;
+
+    /**
+     * Constructs a new OverwritingQueue.
+     *
+     * @param capacity The number of latest elements to keep.
+     * @throws IllegalArgumentException If the capacity is not positive.
+     */
+    public OverwritingQueue(int capacity) {
+        if (capacity <= 0) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        array = (E[]) new Object[Queue.roundUpToPowerOfTwo(capacity)];
+        this.capacity = capacity;
+        r = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the capacity of the ring.
+     *
+     * @return The maximum number of elements the ring keeps.
+     */
+    public int capacity() {
+        return capacity;
+    }
+
+    /**
+     * Adds an element at the end of the ring. If the ring is full, the element at the front (the oldest) is overwritten.
+     *
+     * @param elem The element to be added.
+     */
+    @Override
+    public void pushLast(E elem) {
+        // The slot capacity places back is the front of a full ring and outside the live range otherwise
+        array[(r - capacity) & (array.length - 1)] = null;
+        array[r] = elem;
+        r = (r + 1) & (array.length - 1);
+        size = Math.min(size + 1, capacity);
+        modCount++;
+    }
+
+    /**
+     * Adds all elements of the array at the end of the ring, keeping their order.
+     * Only the last {@code capacity()} elements can survive, so only those are copied, as at most two blocks.
+     *
+     * @param elems The elements to be added.
+     */
+    @Override
+    public void pushAllLast(E[] elems) {
+        int count = Math.min(elems.length, capacity);
+        int newSize = Math.min(size + count, capacity);
+
+        // Clear the oldest elements that fall out of the ring; some of them may be overwritten below
+        int evicted = size + count - newSize;
+        int front = (r - size) & (array.length - 1);
+        int evictedBlock = Math.min(evicted, array.length - front);
+        Arrays.fill(array, front, front + evictedBlock, null);
+        Arrays.fill(array, 0, evicted - evictedBlock, null);
+
+        int from = elems.length - count;
+        int firstBlock = Math.min(count, array.length - r);
+        System.arraycopy(elems, from, array, r, firstBlock);
+        System.arraycopy(elems, from + firstBlock, array, 0, count - firstBlock);
+        r = (r + count) & (array.length - 1);
+        size = newSize;
+        modCount++;
+    }
+
+    /**
+     * Adds an element at the front of the ring. An element older than all others cannot overwrite one of them,
+     * so this fails when the ring is full.
+     *
+     * @param elem The element to be added.
+     * @throws IllegalStateException If the ring is full.
+     */
+    @Override
+    public void pushFirst(E elem) {
+        if (size == capacity) {
+            throw new IllegalStateException("Queue full");
+        }
+        size++;
+        array[(r - size) & (array.length - 1)] = elem;
+        modCount++;
+    }
+
+    @Override
+    public E popFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        int front = (r - size) & (array.length - 1);
+        E elem = array[front];
+        array[front] = null;
+        size--;
+        modCount++;
+        return elem;
+    }
+
+    @Override
+    public E popLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        r = (r - 1) & (array.length - 1);
+        E elem = array[r];
+        array[r] = null;
+        size--;
+        modCount++;
+        return elem;
+    }
+
+    @Override
+    public E first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return array[(r - size) & (array.length - 1)];
+    }
+
+    @Override
+    public E last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return array[(r - 1) & (array.length - 1)];
+    }
+
+    /**
+     * Copies the elements, oldest first, into the given array without removing them.
+     * If the array is shorter than the ring, only the latest {@code dst.length} elements are copied.
+     * The elements are copied as at most two blocks and nothing is allocated.
+     *
+     * @param dst The array that receives the elements, starting at index 0.
+     * @return The number of elements copied.
+     */
+    public int snapshot(E[] dst) {
+        int count = Math.min(size, dst.length);
+        int from = (r - count) & (array.length - 1);
+        int firstBlock = Math.min(count, array.length - from);
+        System.arraycopy(array, from, dst, 0, firstBlock);
+        System.arraycopy(array, 0, dst, firstBlock, count - firstBlock);
+        return count;
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    /**
+     * Removes all elements. The array is kept, so the footprint does not change.
+     */
+    @Override
+    public void clear() {
+        Arrays.fill(array, null);
+        r = 0;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Iterator<E> iterator() {
+        return new RingIterator((r - size) & (array.length - 1), 1);
+    }
+
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new RingIterator((r - 1) & (array.length - 1), -1);
+    }
+
+    private class RingIterator implements Iterator<E> {
+        private int cur;
+        private final int step;
+        // Number of elements not returned yet
+        private int remaining;
+        private final int expectedModCount;
+
+        RingIterator(int start, int step) {
+            cur = start;
+            this.step = step;
+            remaining = size;
+            expectedModCount = modCount;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            E elem = array[cur];
+            cur = (cur + step) & (array.length - 1);
+            remaining--;
+            return elem;
+        }
+    }
+}
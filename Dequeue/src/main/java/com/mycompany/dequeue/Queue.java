@@ -4,22 +4,57 @@
  */
 package com.mycompany.dequeue;
 
+import java.io.IOException;
+import java.io.InvalidObjectException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.Serializable;
+import java.util.AbstractCollection;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Comparator;
 import java.util.ConcurrentModificationException;
+import java.util.Deque;
 import java.util.Iterator;
 import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Spliterator;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.stream.Stream;
+import java.util.stream.StreamSupport;
 
 /**
+ * A double ended queue on a growable circular array.
+ * <p>
+ * It is a complete {@link java.util.Deque}, so it can be passed to any API that expects a {@code Deque},
+ * {@code java.util.Queue} or {@code Collection}. Its iterators do not support {@code remove()}; use
+ * {@link #removeIf}, {@link #removeFirstOccurrence} or {@link #removeLastOccurrence} instead.
+ * Note that code importing {@code java.util.*} has to import this class by name.
+ * <p>
  * Authors:
  * - Konstantinos Kotsaras (it2022050)
  */
-public class Queue<E> implements DeQueue<E> , Iterable<E>{
+public class Queue<E> extends AbstractCollection<E> implements DeQueue<E>, Deque<E>, Serializable{
+
+    private static final long serialVersionUID = 1L;
 
     //Variables
+    // Capacities are always powers of two, so (index & (array.length - 1)) wraps an index around the array
     protected  static final int DEFAULT_CAPACITY = 4;
-    private E[] array;
-    private int f, r, size;
-    private volatile int modCount;
-    private  int expectedModCount;
+    protected  static final int MAXIMUM_CAPACITY = 1 << 30;
+    protected  static final int DEFAULT_GROWTH_FACTOR = 2;
+    // The array, front and rear are not serialized; writeObject writes the elements in order instead
+    private transient E[] array;
+    private final int growthFactor;
+    private final ResizePolicy resizePolicy;
+    private transient int f, r;
+    private int size;
+    private long growCount, shrinkCount;
+    // Null unless metrics are enabled
+    private transient QueueMetrics metrics;
+    // Not volatile: the queue is not thread-safe, the count only detects modifications during iteration
+    private transient int modCount;
 
     /**
      * Constructs a new Queue with default capacity.
@@ -27,16 +62,133 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
      */
     public Queue() {
         array = (E[]) new Object[DEFAULT_CAPACITY];
+        growthFactor = DEFAULT_GROWTH_FACTOR;
+        resizePolicy = ResizePolicy.defaultPolicy();
         f = 0;
         r = 0;
         size = 0;
     }
 
+    /**
+     * Constructs a new Queue that can hold at least the given number of elements without resizing.
+     * The capacity is rounded up to the next power of two (and is never below the default capacity),
+     * so that indices can be wrapped with a bit mask instead of a modulo.
+     *
+     * @param initialCapacity The minimum number of elements the queue can hold before growing.
+     * @throws IllegalArgumentException If the initial capacity is negative or too large.
+     */
+    public Queue(int initialCapacity) {
+        this(initialCapacity, DEFAULT_GROWTH_FACTOR);
+    }
+
+    /**
+     * Constructs a new Queue with the given initial capacity and growth factor.
+     * When the queue is full, its capacity is multiplied by the growth factor.
+     * The growth factor must be a power of two (2, 4, 8, ...) so that the capacity stays a power of two.
+     *
+     * @param initialCapacity The minimum number of elements the queue can hold before growing.
+     * @param growthFactor The factor by which the capacity is multiplied when the queue is full.
+     * @throws IllegalArgumentException If the initial capacity is illegal or the growth factor is not a power of two greater than 1.
+     */
+    public Queue(int initialCapacity, int growthFactor) {
+        this(initialCapacity, growthFactor, ResizePolicy.defaultPolicy());
+    }
+
+    /**
+     * Constructs a new Queue with the given initial capacity and resize policy.
+     *
+     * @param initialCapacity The minimum number of elements the queue can hold before growing.
+     * @param resizePolicy The policy that decides when the queue shrinks.
+     */
+    public Queue(int initialCapacity, ResizePolicy resizePolicy) {
+        this(initialCapacity, DEFAULT_GROWTH_FACTOR, resizePolicy);
+    }
+
+    /**
+     * Constructs a new Queue with the given initial capacity, growth factor and resize policy.
+     * The initial capacity is never below the minimum capacity of the policy.
+     *
+     * @param initialCapacity The minimum number of elements the queue can hold before growing.
+     * @param growthFactor The factor by which the capacity is multiplied when the queue is full.
+     * @param resizePolicy The policy that decides when the queue shrinks.
+     * @throws IllegalArgumentException If the initial capacity is illegal or the growth factor is not a power of two greater than 1.
+     */
+    public Queue(int initialCapacity, int growthFactor, ResizePolicy resizePolicy) {
+        if (growthFactor < 2 || Integer.bitCount(growthFactor) != 1) {
+            throw new IllegalArgumentException("Growth factor must be a power of two greater than 1: " + growthFactor);
+        }
+        array = (E[]) new Object[Math.max(roundUpToPowerOfTwo(initialCapacity), resizePolicy.getMinCapacity())];
+        this.growthFactor = growthFactor;
+        this.resizePolicy = resizePolicy;
+        f = 0;
+        r = 0;
+        size = 0;
+    }
+
+    /**
+     * Returns the smallest power of two that is greater than or equal to the given capacity
+     * and not smaller than the default capacity.
+     */
+    static int roundUpToPowerOfTwo(int capacity) {
+        if (capacity < 0 || capacity > MAXIMUM_CAPACITY) {
+            throw new IllegalArgumentException("Illegal capacity: " + capacity);
+        }
+        if (capacity <= DEFAULT_CAPACITY) {
+            return DEFAULT_CAPACITY;
+        }
+        return Integer.highestOneBit(capacity - 1) << 1;
+    }
 
     protected  int getCapacity() {
         return array.length;
     }
 
+    /**
+     * Starts collecting metrics for this queue. Until this is called, no metrics are collected.
+     *
+     * @return The metrics of this queue.
+     */
+    public QueueMetrics enableMetrics() {
+        if (metrics == null) {
+            metrics = new QueueMetrics();
+        }
+        return metrics;
+    }
+
+    /**
+     * Stops collecting metrics for this queue.
+     */
+    public void disableMetrics() {
+        metrics = null;
+    }
+
+    /**
+     * Returns the metrics of this queue.
+     *
+     * @return The metrics, or {@code null} if they are not enabled.
+     */
+    public QueueMetrics getMetrics() {
+        return metrics;
+    }
+
+    /**
+     * Returns how many times the queue has grown its array.
+     *
+     * @return The number of grow operations.
+     */
+    public long getGrowCount() {
+        return growCount;
+    }
+
+    /**
+     * Returns how many times the queue has shrunk its array.
+     *
+     * @return The number of shrink operations.
+     */
+    public long getShrinkCount() {
+        return shrinkCount;
+    }
+
     /**
      * Adds the specified element to the front of the queue.
      * If the dequeue is at full capacity, it doubles its size before adding the element.
@@ -51,7 +203,7 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
         }
 
         // Calculate the new position of the front
-        f = (f - 1 + getCapacity()) % getCapacity();
+        f = (f - 1) & (array.length - 1);
 
         // Add the element to the front of the queue
         array[f] = elem;
@@ -61,6 +213,10 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
 
         // Increase the modification count to track structural modifications
         modCount++;
+
+        if (metrics != null) {
+            metrics.onPushFirst(1, size);
+        }
     }
 
     /**
@@ -80,7 +236,7 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
         array[r] = elem;
 
         // Calculate the new position of rear
-        r = (r + 1) % getCapacity();
+        r = (r + 1) & (array.length - 1);
 
         // Increase the size of the queue
         size++;
@@ -88,11 +244,14 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
         // Increase the modification count to track structural modifications
         modCount++;
 
+        if (metrics != null) {
+            metrics.onPushLast(1, size);
+        }
     }
 
     /**
      * Removes and returns the element at the front of the queue.
-     * If the queue becomes less than one-fourth full after removal, it shrinks its capacity.
+     * If the resize policy asks for it (by default when the queue becomes one-fourth full), it shrinks its capacity.
      *
      * @return The element at the front of the queue.
      * @throws NoSuchElementException If the queue is empty.
@@ -108,12 +267,16 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
         // Set the removed element to null
         array[f] = null;
 
-        f = (f + 1) % getCapacity();
+        f = (f + 1) & (array.length - 1);
         size--;
         modCount++;
 
+        if (metrics != null) {
+            metrics.onPopFirst(1);
+        }
+
         // Check if shrinking is needed
-        if (4 * size <= array.length) {
+        if (resizePolicy.shouldShrink(size, array.length)) {
             halfCapacity();
         }
 
@@ -122,7 +285,7 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
 
     /**
      * Removes and returns the element at the end of the queue.
-     * If the queue becomes less than one-fourth full after removal, it shrinks its capacity.
+     * If the resize policy asks for it (by default when the queue becomes one-fourth full), it shrinks its capacity.
      *
      * @return The element at the end of the queue.
      * @throws NoSuchElementException If the queue is empty.
@@ -133,11 +296,7 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
             throw new NoSuchElementException("Queue is empty");
         }
 
-        if (r == 0) {
-            r = getCapacity() - 1;
-        } else {
-            r--;
-        }
+        r = (r - 1) & (array.length - 1);
 
         E elem = array[r];
         // Set the removed element to null
@@ -146,8 +305,12 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
         size--;
         modCount++;
 
+        if (metrics != null) {
+            metrics.onPopLast(1);
+        }
+
         // Check if shrinking is needed
-        if (4 * size <= array.length) {
+        if (resizePolicy.shouldShrink(size, array.length)) {
             halfCapacity();
         }
 
@@ -181,12 +344,610 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
         }
 
         // Calculate the position of the last element
-        int lastRear = (r - 1 + getCapacity()) % getCapacity();
+        int lastRear = (r - 1) & (array.length - 1);
 
         // Return the last element
         return array[lastRear];
     }
 
+    /**
+     * Adds all elements of the array to the front of the queue, keeping their order.
+     * The array is grown at most once and the elements are copied as at most two blocks.
+     *
+     * @param elems The elements to be added to the front of the queue.
+     */
+    @Override
+    public void pushAllFirst(E[] elems) {
+        int n = elems.length;
+        ensureCapacity(size + n);
+
+        // The new front is n slots before the old one
+        int newF = (f - n) & (array.length - 1);
+        int firstBlock = Math.min(n, array.length - newF);
+        System.arraycopy(elems, 0, array, newF, firstBlock);
+        System.arraycopy(elems, firstBlock, array, 0, n - firstBlock);
+
+        f = newF;
+        size += n;
+        modCount++;
+
+        if (metrics != null) {
+            metrics.onPushFirst(n, size);
+        }
+    }
+
+    /**
+     * Adds all elements of the array to the end of the queue, keeping their order.
+     * The array is grown at most once and the elements are copied as at most two blocks.
+     *
+     * @param elems The elements to be added to the end of the queue.
+     */
+    @Override
+    public void pushAllLast(E[] elems) {
+        int n = elems.length;
+        ensureCapacity(size + n);
+
+        int firstBlock = Math.min(n, array.length - r);
+        System.arraycopy(elems, 0, array, r, firstBlock);
+        System.arraycopy(elems, firstBlock, array, 0, n - firstBlock);
+
+        r = (r + n) & (array.length - 1);
+        size += n;
+        modCount++;
+
+        if (metrics != null) {
+            metrics.onPushLast(n, size);
+        }
+    }
+
+    @Override
+    public void pushAllLast(Collection<? extends E> elems) {
+        pushAllLast((E[]) elems.toArray());
+    }
+
+    /**
+     * Removes up to n elements from the front of the queue and stores them in dst, front first.
+     * The elements are copied as at most two blocks and the shrink check is done once.
+     *
+     * @param n The maximum number of elements to remove.
+     * @param dst The array that receives the elements.
+     * @return The number of elements removed.
+     */
+    @Override
+    public int popFirst(int n, E[] dst) {
+        return popFirst(n, dst, 0);
+    }
+
+    /**
+     * Removes up to n elements from the front of the queue and stores them in dst from the given offset,
+     * front first. The elements are copied as at most two blocks and the shrink check is done once.
+     *
+     * @param n The maximum number of elements to remove.
+     * @param dst The array that receives the elements.
+     * @param offset The index in dst of the first element.
+     * @return The number of elements removed.
+     */
+    @Override
+    public int popFirst(int n, E[] dst, int offset) {
+        int count = Math.min(n, size);
+        if (count <= 0) {
+            return 0;
+        }
+        copyOut(f, count, dst, offset);
+
+        f = (f + count) & (array.length - 1);
+        size -= count;
+        modCount++;
+
+        if (metrics != null) {
+            metrics.onPopFirst(count);
+        }
+
+        // Check if shrinking is needed
+        if (resizePolicy.shouldShrink(size, array.length)) {
+            halfCapacity();
+        }
+        return count;
+    }
+
+    /**
+     * Removes up to n elements from the end of the queue and stores them in dst, last element first
+     * (the order in which repeated popLast() calls would return them).
+     *
+     * @param n The maximum number of elements to remove.
+     * @param dst The array that receives the elements.
+     * @return The number of elements removed.
+     */
+    @Override
+    public int popLast(int n, E[] dst) {
+        int count = Math.min(n, size);
+        if (count <= 0) {
+            return 0;
+        }
+        int start = (r - count) & (array.length - 1);
+        copyOut(start, count, dst, 0);
+
+        // The block copy is in front-to-end order; reverse it in place
+        for (int i = 0, j = count - 1; i < j; i++, j--) {
+            E tmp = dst[i];
+            dst[i] = dst[j];
+            dst[j] = tmp;
+        }
+
+        r = start;
+        size -= count;
+        modCount++;
+
+        if (metrics != null) {
+            metrics.onPopLast(count);
+        }
+
+        // Check if shrinking is needed
+        if (resizePolicy.shouldShrink(size, array.length)) {
+            halfCapacity();
+        }
+        return count;
+    }
+
+    /**
+     * Removes all elements from the front of the queue and passes them to the given action.
+     * The front index is advanced (and wrapped with the mask) after each element, so the queue stays
+     * consistent if the action throws; the shrink check is done once at the end.
+     *
+     * @param action The action that receives the elements.
+     * @return The number of elements removed.
+     * @throws ConcurrentModificationException If the action modifies the queue.
+     */
+    @Override
+    public int drainTo(Consumer<? super E> action) {
+        int count = size;
+        int expected = ++modCount;
+        for (int i = 0; i < count; i++) {
+            E elem = array[f];
+            array[f] = null;
+            f = (f + 1) & (array.length - 1);
+            size--;
+            action.accept(elem);
+            if (modCount != expected) {
+                throw new ConcurrentModificationException();
+            }
+        }
+        r = f;
+
+        if (metrics != null) {
+            metrics.onPopFirst(count);
+        }
+
+        // Check if shrinking is needed
+        if (resizePolicy.shouldShrink(size, array.length)) {
+            halfCapacity();
+        }
+        return count;
+    }
+
+    /**
+     * Makes sure that the queue can hold at least the given number of elements without growing.
+     * If needed, the array is grown once, by a power of the growth factor.
+     *
+     * @param minCapacity The number of elements the queue must be able to hold.
+     * @throws IllegalStateException If the capacity would exceed the maximum capacity.
+     */
+    public void ensureCapacity(int minCapacity) {
+        // Validate first, so an overflowed (negative) size is rejected rather than ignored
+        if (minCapacity < 0 || minCapacity > MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Queue too big");
+        }
+        if (minCapacity <= array.length) {
+            return;
+        }
+        long newCapacity = array.length;
+        while (newCapacity < minCapacity) {
+            newCapacity *= growthFactor;
+        }
+        resize((int) Math.min(newCapacity, MAXIMUM_CAPACITY));
+        growCount++;
+    }
+
+    /**
+     * Copies count elements, starting at array index from, into dst and nulls the source slots.
+     * The range may wrap around the end of the array, so it is copied as at most two blocks.
+     */
+    private void copyOut(int from, int count, E[] dst, int dstPos) {
+        int firstBlock = Math.min(count, array.length - from);
+        System.arraycopy(array, from, dst, dstPos, firstBlock);
+        System.arraycopy(array, 0, dst, dstPos + firstBlock, count - firstBlock);
+        Arrays.fill(array, from, from + firstBlock, null);
+        Arrays.fill(array, 0, count - firstBlock, null);
+    }
+
+    /**
+     * Returns the element at the given position, counted from the front of the queue.
+     *
+     * @param index The position of the element; 0 is the front.
+     * @return The element at the given position.
+     * @throws IndexOutOfBoundsException If the index is negative or not smaller than the size.
+     */
+    public E get(int index) {
+        Objects.checkIndex(index, size);
+        return array[(f + index) & (array.length - 1)];
+    }
+
+    /**
+     * Replaces the element at the given position, counted from the front of the queue.
+     * This is not a structural modification, so it does not affect running iterators.
+     *
+     * @param index The position of the element; 0 is the front.
+     * @param elem The new element.
+     * @return The element previously at the given position.
+     * @throws IndexOutOfBoundsException If the index is negative or not smaller than the size.
+     */
+    public E set(int index, E elem) {
+        Objects.checkIndex(index, size);
+        int i = (f + index) & (array.length - 1);
+        E old = array[i];
+        array[i] = elem;
+        return old;
+    }
+
+    /**
+     * Searches for an element in a queue whose elements are sorted, from front to end, by the given comparator.
+     * The result is undefined if the queue is not sorted.
+     *
+     * @param key The element to search for.
+     * @param comparator The comparator by which the queue is sorted.
+     * @return The position of the key, counted from the front, if it is in the queue;
+     *         otherwise {@code -(insertion point) - 1}, where the insertion point is the position of the first
+     *         element greater than the key (or the size, if there is none).
+     */
+    public int binarySearch(E key, Comparator<? super E> comparator) {
+        int lo = 0;
+        int hi = size - 1;
+        int mask = array.length - 1;
+        while (lo <= hi) {
+            int mid = (lo + hi) >>> 1;
+            int cmp = comparator.compare(array[(f + mid) & mask], key);
+            if (cmp < 0) {
+                lo = mid + 1;
+            } else if (cmp > 0) {
+                hi = mid - 1;
+            } else {
+                return mid;
+            }
+        }
+        return -(lo + 1);
+    }
+
+    /**
+     * Adds the element to the end of the queue, like {@link #pushLast(Object)}.
+     *
+     * @param elem The element to be added.
+     * @return {@code true}, since the queue grows as needed.
+     */
+    @Override
+    public boolean add(E elem) {
+        pushLast(elem);
+        return true;
+    }
+
+    @Override
+    public void addFirst(E elem) {
+        pushFirst(elem);
+    }
+
+    @Override
+    public void addLast(E elem) {
+        pushLast(elem);
+    }
+
+    @Override
+    public boolean offerFirst(E elem) {
+        pushFirst(elem);
+        return true;
+    }
+
+    @Override
+    public boolean offerLast(E elem) {
+        pushLast(elem);
+        return true;
+    }
+
+    @Override
+    public boolean offer(E elem) {
+        pushLast(elem);
+        return true;
+    }
+
+    @Override
+    public void push(E elem) {
+        pushFirst(elem);
+    }
+
+    @Override
+    public E removeFirst() {
+        return popFirst();
+    }
+
+    @Override
+    public E removeLast() {
+        return popLast();
+    }
+
+    @Override
+    public E remove() {
+        return popFirst();
+    }
+
+    @Override
+    public E pop() {
+        return popFirst();
+    }
+
+    /**
+     * Removes and returns the element at the front of the queue, or returns {@code null} if the queue is empty.
+     * Since the queue may hold {@code null} elements, use {@link #isEmpty()} to tell the two cases apart.
+     *
+     * @return The element at the front of the queue, or {@code null}.
+     */
+    @Override
+    public E pollFirst() {
+        return isEmpty() ? null : popFirst();
+    }
+
+    /**
+     * Removes and returns the element at the end of the queue, or returns {@code null} if the queue is empty.
+     *
+     * @return The element at the end of the queue, or {@code null}.
+     */
+    @Override
+    public E pollLast() {
+        return isEmpty() ? null : popLast();
+    }
+
+    @Override
+    public E poll() {
+        return pollFirst();
+    }
+
+    @Override
+    public E getFirst() {
+        return first();
+    }
+
+    @Override
+    public E getLast() {
+        return last();
+    }
+
+    @Override
+    public E element() {
+        return first();
+    }
+
+    @Override
+    public E peekFirst() {
+        return isEmpty() ? null : array[f];
+    }
+
+    @Override
+    public E peekLast() {
+        return isEmpty() ? null : array[(r - 1) & (array.length - 1)];
+    }
+
+    @Override
+    public E peek() {
+        return peekFirst();
+    }
+
+    /**
+     * Adds all elements of the collection to the end of the queue.
+     * The collection is copied to an array once and the queue grows at most once, before the copy.
+     *
+     * @param elems The elements to be added.
+     * @return {@code true} if the collection was not empty.
+     */
+    @Override
+    public boolean addAll(Collection<? extends E> elems) {
+        if (elems.isEmpty()) {
+            return false;
+        }
+        pushAllLast(elems);
+        return true;
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return indexOf(o) >= 0;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return removeFirstOccurrence(o);
+    }
+
+    /**
+     * Removes the first element, from the front, that equals the given object.
+     * The elements on the shorter side of it are shifted by one slot to close the gap.
+     *
+     * @param o The element to be removed.
+     * @return {@code true} if an element was removed.
+     */
+    @Override
+    public boolean removeFirstOccurrence(Object o) {
+        int index = indexOf(o);
+        if (index < 0) {
+            return false;
+        }
+        delete(index);
+        return true;
+    }
+
+    /**
+     * Removes the last element, from the front, that equals the given object.
+     * The elements on the shorter side of it are shifted by one slot to close the gap.
+     *
+     * @param o The element to be removed.
+     * @return {@code true} if an element was removed.
+     */
+    @Override
+    public boolean removeLastOccurrence(Object o) {
+        int mask = array.length - 1;
+        for (int i = size - 1; i >= 0; i--) {
+            if (Objects.equals(o, array[(f + i) & mask])) {
+                delete(i);
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Removes all elements that match the filter, in a single pass over the queue:
+     * the elements that are kept are moved towards the front over the removed ones.
+     * If the filter throws, the elements it has not tested yet are kept.
+     *
+     * @param filter The predicate that selects the elements to remove.
+     * @return {@code true} if any element was removed.
+     * @throws ConcurrentModificationException If the filter modifies the queue.
+     */
+    @Override
+    public boolean removeIf(Predicate<? super E> filter) {
+        Objects.requireNonNull(filter);
+        return bulkRemove(filter);
+    }
+
+    @Override
+    public boolean removeAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return bulkRemove(c::contains);
+    }
+
+    @Override
+    public boolean retainAll(Collection<?> c) {
+        Objects.requireNonNull(c);
+        return bulkRemove(elem -> !c.contains(elem));
+    }
+
+    /**
+     * Returns an array with the elements of the queue, from front to end.
+     * The live range is copied as at most two blocks.
+     *
+     * @return A new array with the elements.
+     */
+    @Override
+    public Object[] toArray() {
+        Object[] result = new Object[size];
+        copyTo(result);
+        return result;
+    }
+
+    /**
+     * Returns an array with the elements of the queue, from front to end, in the given array if it is large enough.
+     * The live range is copied as at most two blocks.
+     *
+     * @param <T> the component type of the array
+     * @param a The array to fill, if it is large enough; otherwise only its type is used.
+     * @return The array with the elements.
+     */
+    @Override
+    public <T> T[] toArray(T[] a) {
+        T[] result = a.length >= size ? a : Arrays.copyOf(a, size);
+        copyTo(result);
+        if (result.length > size) {
+            result[size] = null;
+        }
+        return result;
+    }
+
+    // Copies the live range, as at most two blocks, to the start of dst
+    private void copyTo(Object[] dst) {
+        int firstBlock = Math.min(size, array.length - f);
+        System.arraycopy(array, f, dst, 0, firstBlock);
+        System.arraycopy(array, 0, dst, firstBlock, size - firstBlock);
+    }
+
+    // Returns the position, counted from the front, of the first element that equals o, or -1
+    private int indexOf(Object o) {
+        int mask = array.length - 1;
+        for (int i = 0; i < size; i++) {
+            if (Objects.equals(o, array[(f + i) & mask])) {
+                return i;
+            }
+        }
+        return -1;
+    }
+
+    // Removes the element at the given position by shifting the shorter side of the queue over it
+    private void delete(int index) {
+        int mask = array.length - 1;
+        if (index < size - 1 - index) {
+            for (int i = index; i > 0; i--) {
+                array[(f + i) & mask] = array[(f + i - 1) & mask];
+            }
+            array[f] = null;
+            f = (f + 1) & mask;
+        } else {
+            for (int i = index; i < size - 1; i++) {
+                array[(f + i) & mask] = array[(f + i + 1) & mask];
+            }
+            r = (r - 1) & mask;
+            array[r] = null;
+        }
+        size--;
+        modCount++;
+
+        if (resizePolicy.shouldShrink(size, array.length)) {
+            halfCapacity();
+        }
+    }
+
+    // Single-pass compaction: kept elements are written at w, the next free position counted from the front
+    private boolean bulkRemove(Predicate<? super E> filter) {
+        int mask = array.length - 1;
+        int expected = modCount;
+
+        // Nothing is written before the first element to remove
+        int i = 0;
+        while (i < size && !filter.test(array[(f + i) & mask])) {
+            i++;
+        }
+        if (modCount != expected) {
+            throw new ConcurrentModificationException();
+        }
+        if (i == size) {
+            return false;
+        }
+
+        int w = i;
+        i++;
+        try {
+            for (; i < size; i++) {
+                E elem = array[(f + i) & mask];
+                if (!filter.test(elem)) {
+                    array[(f + w++) & mask] = elem;
+                }
+            }
+        } finally {
+            // If the filter threw, keep the elements it has not tested
+            for (; i < size; i++) {
+                array[(f + w++) & mask] = array[(f + i) & mask];
+            }
+            for (int j = w; j < size; j++) {
+                array[(f + j) & mask] = null;
+            }
+            r = (f + w) & mask;
+            size = w;
+            modCount++;
+        }
+        if (modCount != expected + 1) {
+            throw new ConcurrentModificationException();
+        }
+
+        if (resizePolicy.shouldShrink(size, array.length)) {
+            halfCapacity();
+        }
+        return true;
+    }
+
     /**
      * Checks whether the queue is empty.
      *
@@ -209,15 +970,38 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
 
     /**
      * Removes all elements from the queue and resets its internal state.
-     * After invoking this method, the queue will have a capacity equal to the default capacity.
+     * By default the queue then has a capacity equal to the minimum capacity of the resize policy.
+     * If the policy retains the array on clear, only the occupied slots are nulled and the capacity is kept.
      * The front and rear indices are reset to the starting position, and the size becomes 0.
      */
     @Override
     public void clear() {
-        array = (E[]) new Object[DEFAULT_CAPACITY]; // Reset the array to the default capacity
+        if (resizePolicy.isRetainOnClear()) {
+            // Null out the live range (at most two blocks) so the elements can be garbage collected
+            int firstBlock = Math.min(size, array.length - f);
+            Arrays.fill(array, f, f + firstBlock, null);
+            Arrays.fill(array, 0, size - firstBlock, null);
+        } else {
+            array = (E[]) new Object[resizePolicy.getMinCapacity()]; // Reset the array to the minimum capacity
+        }
         f = 0; // Reset the front index
         r = 0; // Reset the rear index
         size = 0; // Reset the size of the deque
+        modCount++;
+    }
+
+    /**
+     * Shrinks the capacity to the smallest power of two that holds the current elements,
+     * but not below the minimum capacity of the resize policy.
+     * This is the only way a queue shrinks when its policy does not shrink automatically.
+     */
+    public void trimToSize() {
+        int newCapacity = Math.max(roundUpToPowerOfTwo(size), resizePolicy.getMinCapacity());
+        if (newCapacity < array.length) {
+            resize(newCapacity);
+            shrinkCount++;
+            modCount++;
+        }
     }
     /**
      * IteratorImpl is the iterator for forward traversal of the circular array.
@@ -226,14 +1010,22 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
 
     @Override
     public Iterator<E> iterator() {
+        if (metrics != null) {
+            metrics.onIterator();
+        }
         return new IteratorImpl();
     }
 
     private class IteratorImpl implements Iterator<E> {
         private int cur;
+        // Number of elements not returned yet; a full queue has f == r, so cur != r cannot be used
+        private int remaining;
+        // Each iterator has its own expected count, so several live iterators do not interfere
+        private final int expectedModCount;
     // Constructor initializes the current index to f and checks for concurrent modifications.
           public IteratorImpl(){
             cur=f;
+            remaining = size;
             expectedModCount = modCount;
     }
     /**
@@ -247,31 +1039,30 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
         }
     }
     /**
-     * Check for structural modifications.
      * @return true if there is an element after current element in queue 
      */    
         @Override
         public boolean hasNext() {
-            checkForComodification();
-            return cur != r;
+            return remaining > 0;
         }
     /**
      * Check for structural modifications.
-     * Check if there is an element after current element with hasNext() method
+     * Check if there is an element after current element
      * Retrieve the element at the current index in the circular array and store it in the variable elem type E
      * Increment cur by 1 to move to the next element
-     * modulo getCapacity():Ensure that the incremented current index is within the bounds of the array. If the current index is at the end of the array, it loops back to the start 
+     * mask with (array.length - 1):Ensure that the incremented current index is within the bounds of the array. If the current index is at the end of the array, it loops back to the start 
      * @return The next element in the queue
      * @throws NoSuchElementException() if there is no next element in queue
      */      
         @Override
         public E next() {
             checkForComodification();
-            if (!hasNext()) {
+            if (remaining == 0) {
                 throw new NoSuchElementException();
             }
             E elem = array[cur];
-            cur = (cur + 1) % getCapacity();
+            cur = (cur + 1) & (array.length - 1);
+            remaining--;
             return elem;
         }
     }
@@ -283,14 +1074,21 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
 
     @Override
     public Iterator<E> descendingIterator() {
+        if (metrics != null) {
+            metrics.onIterator();
+        }
         return new DescendingIteratorImpl();
     }
 
     private class DescendingIteratorImpl implements Iterator<E> {
         private int cur;
-    // Constructor initializes the current index to [(r - 1 + getCapacity()) % getCapacity()] and checks for concurrent modifications.
+        // Number of elements not returned yet
+        private int remaining;
+        private final int expectedModCount;
+    // Constructor initializes the current index to [(r - 1) & (array.length - 1)] and checks for concurrent modifications.
         public DescendingIteratorImpl() {
-            cur = (r - 1 + getCapacity()) % getCapacity();
+            cur = (r - 1) & (array.length - 1);
+            remaining = size;
             expectedModCount = modCount;
         }
         private void checkForComodification() {
@@ -299,21 +1097,18 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
         }
     }
     /**
-     * Check for structural modifications.
-     * f-1 to go to previous element
      * @return true if there is an element before current element in queue 
      */  
         @Override
         public boolean hasNext() {
-            checkForComodification();
-            return cur != (f - 1 + getCapacity()) % getCapacity();
+            return remaining > 0;
         }
     /**
      * Check for structural modifications.
-     * Check if there is an element after current element with hasNext() method
+     * Check if there is an element after current element
      * Retrieve the element at the current index in the circular array and store it in the variable elem type E
      * decrease cur by 1 to move to the previous element
-     * modulo getCapacity():Ensure that the decreased current index is within the bounds of the array. If the current index is at the start of the array, it loops back to the end
+     * mask with (array.length - 1):Ensure that the decreased current index is within the bounds of the array. If the current index is at the start of the array, it loops back to the end
      * @return The previous element in the queue
      * @throws NoSuchElementException() if there is no previous element in queue
      */          
@@ -321,61 +1116,326 @@ public class Queue<E> implements DeQueue<E> , Iterable<E>{
         @Override
         public E next() {
             checkForComodification();
-            if (!hasNext()) {
+            if (remaining == 0) {
                 throw new NoSuchElementException();
             }
             E elem = array[cur];
-            cur = (cur - 1 + getCapacity()) % getCapacity();
+            cur = (cur - 1) & (array.length - 1);
+            remaining--;
             return elem;
         }
     }
 
-    private void doubleCapacity() {
-        // Doubles the capacity of the dequeue by creating a new array with double the current capacity
-        int newCapacity = 2 * getCapacity();
-        E[] newArray = (E[]) new Object[newCapacity];
+    /**
+     * Returns a reusable cursor, positioned at the front of the queue.
+     * Unlike {@link #iterator()}, a cursor can be rewound with {@link Cursor#reset()} or
+     * {@link Cursor#resetDescending()}, so a loop that traverses the queue many times
+     * can allocate it once and then iterate without producing garbage.
+     *
+     * @return A cursor over the elements, from front to end.
+     */
+    public Cursor cursor() {
+        if (metrics != null) {
+            metrics.onIterator();
+        }
+        return new Cursor().reset();
+    }
 
-        // Copy elements to the new array, maintaining the correct order
-        for (int i = 0; i < size; i++) {
-            newArray[i] = array[(f + i) % getCapacity()];
+    /**
+     * Cursor is a reusable iterator in either direction.
+     * Like the other iterators it keeps its own expected modification count, taken on every reset.
+     */
+    public final class Cursor implements Iterator<E> {
+        private int cur;
+        private int remaining;
+        private int step;
+        private int expectedModCount;
+
+        private Cursor() {
         }
 
-        // Update front and rear indices
-        f = 0;
-        r = size;
+        /**
+         * Rewinds the cursor to the front of the queue, for traversal from front to end.
+         *
+         * @return This cursor.
+         */
+        public Cursor reset() {
+            cur = f;
+            step = 1;
+            remaining = size;
+            expectedModCount = modCount;
+            return this;
+        }
 
-        // Update array
-        array = newArray;
+        /**
+         * Rewinds the cursor to the end of the queue, for traversal from end to front.
+         *
+         * @return This cursor.
+         */
+        public Cursor resetDescending() {
+            cur = (r - 1) & (array.length - 1);
+            step = -1;
+            remaining = size;
+            expectedModCount = modCount;
+            return this;
+        }
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            E elem = array[cur];
+            cur = (cur + step) & (array.length - 1);
+            remaining--;
+            return elem;
+        }
+    }
+
+    /**
+     * Performs the given action for each element, from front to end, without allocating an iterator.
+     * The array is walked as at most two contiguous ranges.
+     *
+     * @param action The action to be performed for each element.
+     * @throws ConcurrentModificationException If the action modifies the queue.
+     */
+    @Override
+    public void forEach(Consumer<? super E> action) {
+        Objects.requireNonNull(action);
+        E[] elements = array;
+        int expected = modCount;
+        int firstBlock = Math.min(size, elements.length - f);
+        int end = f + firstBlock;
+        for (int i = f; i < end; i++) {
+            action.accept(elements[i]);
+        }
+        int wrapped = size - firstBlock;
+        for (int i = 0; i < wrapped; i++) {
+            action.accept(elements[i]);
+        }
+        if (modCount != expected) {
+            throw new ConcurrentModificationException();
+        }
+    }
+
+    /**
+     * Returns a spliterator over the elements of the queue, from front to end.
+     * It reports SIZED, SUBSIZED and ORDERED and splits the live range into two halves
+     * of equal size, wherever the range wraps around the end of the array.
+     */
+    @Override
+    public Spliterator<E> spliterator() {
+        return new QueueSpliterator(array, f, 0, size, modCount);
+    }
+
+    /**
+     * Returns a sequential stream over the elements of the queue, from front to end.
+     *
+     * @return A sequential stream.
+     */
+    public Stream<E> stream() {
+        return StreamSupport.stream(spliterator(), false);
+    }
+
+    /**
+     * Returns a parallel stream over the elements of the queue.
+     *
+     * @return A possibly parallel stream.
+     */
+    public Stream<E> parallelStream() {
+        return StreamSupport.stream(spliterator(), true);
+    }
+
+    /**
+     * QueueSpliterator covers the logical positions [lo, hi), counted from the front f.
+     * Logical position i is at array index (f + i) & (array.length - 1), so splitting
+     * only needs the midpoint of the two positions.
+     */
+    private class QueueSpliterator implements Spliterator<E> {
+        private final E[] elements;
+        private final int front;
+        private final int expectedModCount;
+        private int lo;
+        private final int hi;
+
+        QueueSpliterator(E[] elements, int front, int lo, int hi, int expectedModCount) {
+            this.elements = elements;
+            this.front = front;
+            this.lo = lo;
+            this.hi = hi;
+            this.expectedModCount = expectedModCount;
+        }
+
+        private void checkForComodification() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+        }
+
+        @Override
+        public Spliterator<E> trySplit() {
+            int mid = (lo + hi) >>> 1;
+            if (mid <= lo) {
+                return null;
+            }
+            // The prefix goes to the new spliterator, this one keeps the suffix.
+            // Both share the array captured at creation, not whatever the queue holds now.
+            QueueSpliterator prefix = new QueueSpliterator(elements, front, lo, mid, expectedModCount);
+            lo = mid;
+            return prefix;
+        }
+
+        @Override
+        public boolean tryAdvance(Consumer<? super E> action) {
+            checkForComodification();
+            if (lo >= hi) {
+                return false;
+            }
+            action.accept(elements[(front + lo++) & (elements.length - 1)]);
+            return true;
+        }
+
+        @Override
+        public void forEachRemaining(Consumer<? super E> action) {
+            // Walk the range as at most two contiguous pieces of the array
+            int start = (front + lo) & (elements.length - 1);
+            int count = hi - lo;
+            int firstBlock = Math.min(count, elements.length - start);
+            for (int i = start; i < start + firstBlock; i++) {
+                action.accept(elements[i]);
+            }
+            for (int i = 0; i < count - firstBlock; i++) {
+                action.accept(elements[i]);
+            }
+            lo = hi;
+            checkForComodification();
+        }
+
+        @Override
+        public long estimateSize() {
+            return hi - lo;
+        }
+
+        @Override
+        public int characteristics() {
+            return Spliterator.ORDERED | Spliterator.SIZED | Spliterator.SUBSIZED;
+        }
+    }
+
+    private void doubleCapacity() {
+        // Multiplies the capacity of the dequeue by the growth factor (doubling it by default)
+        if (getCapacity() == MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Queue too big");
+        }
+        long newCapacity = (long) getCapacity() * growthFactor;
+        resize((int) Math.min(newCapacity, MAXIMUM_CAPACITY));
+        growCount++;
     }
 
     private void halfCapacity() {
-        // Check if shrinking is needed and if the resulting capacity is not below the default capacity
-        if (array.length <= DEFAULT_CAPACITY) {
+        // Ask the policy for the new capacity; with the default policy this halves the array
+        int newCapacity = resizePolicy.shrinkCapacity(size, getCapacity());
+        if (newCapacity >= getCapacity()) {
             return;
         }
 
-        // Calculate the new capacity as half of the current capacity
-        int newCapacity = getCapacity() / 2;
+        resize(newCapacity);
+        shrinkCount++;
+    }
+
+    /**
+     * Moves the elements into a new array of the given capacity, with the front at index 0.
+     * The live range [f, r) is copied as at most two contiguous blocks: from f to the end of the
+     * old array and, if the range wraps around, from the start of the old array up to r.
+     *
+     * @param newCapacity The new capacity, a power of two not smaller than size.
+     */
+    private void resize(int newCapacity) {
+        if (metrics != null) {
+            resizeWithMetrics(newCapacity);
+        } else {
+            reallocate(newCapacity);
+        }
+    }
 
-        // Create a new array with the updated capacity
+    private void reallocate(int newCapacity) {
         E[] newArray = (E[]) new Object[newCapacity];
 
-        // Copy elements to the new array, maintaining the correct order
-        for (int i = 0; i < Math.min(size, newCapacity); i++) {
-            newArray[i] = array[(f + i) % getCapacity()];
-        }
+        // Length of the block from the front up to the end of the old array
+        int firstBlock = Math.min(size, array.length - f);
+        System.arraycopy(array, f, newArray, 0, firstBlock);
 
-        // Update the size to the minimum of the current size and the new capacity
-        size = Math.min(size, newCapacity);
+        // Copy the wrapped-around block, if any
+        System.arraycopy(array, 0, newArray, firstBlock, size - firstBlock);
 
         // Update front and rear indices
         f = 0;
-        r = size;
+        r = size & (newCapacity - 1);
 
         // Update the array reference to the new array
         array = newArray;
     }
 
+    // Same as reallocate, but timed and reported to the metrics and to Flight Recorder
+    private void resizeWithMetrics(int newCapacity) {
+        int oldCapacity = array.length;
+        int copied = size;
+        QueueResizeEvent event = new QueueResizeEvent();
+        event.begin();
+        long start = System.nanoTime();
+
+        reallocate(newCapacity);
+
+        metrics.onResize(oldCapacity, newCapacity, copied, System.nanoTime() - start);
+        event.end();
+        if (event.shouldCommit()) {
+            event.oldCapacity = oldCapacity;
+            event.newCapacity = newCapacity;
+            event.elementsCopied = copied;
+            event.commit();
+        }
+    }
+
+    /**
+     * Writes the size and the policy fields, then the elements from front to rear,
+     * walking the live range as at most two contiguous pieces of the array.
+     */
+    private void writeObject(ObjectOutputStream out) throws IOException {
+        out.defaultWriteObject();
+        int firstBlock = Math.min(size, array.length - f);
+        for (int i = f; i < f + firstBlock; i++) {
+            out.writeObject(array[i]);
+        }
+        for (int i = 0; i < size - firstBlock; i++) {
+            out.writeObject(array[i]);
+        }
+    }
+
+    /**
+     * Reads the elements into an array that is already large enough for all of them,
+     * so restoring a queue never resizes.
+     */
+    private void readObject(ObjectInputStream in) throws IOException, ClassNotFoundException {
+        in.defaultReadObject();
+        if (size < 0 || size > MAXIMUM_CAPACITY) {
+            throw new InvalidObjectException("Illegal size: " + size);
+        }
+        array = (E[]) new Object[Math.max(roundUpToPowerOfTwo(size), resizePolicy.getMinCapacity())];
+        for (int i = 0; i < size; i++) {
+            array[i] = (E) in.readObject();
+        }
+        f = 0;
+        r = size & (array.length - 1);
+    }
+
     /**
      * Prints the elements of the queue, enclosed in square brackets and separated by commas, to the standard output.
      * If the queue is empty, an empty line is printed.
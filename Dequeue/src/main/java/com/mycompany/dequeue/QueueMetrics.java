@@ -0,0 +1,192 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.lang.management.ManagementFactory;
+import javax.management.JMException;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
+
+/**
+ * Counters that describe how a {@link Queue} is used: pushes and pops per end, the highest size reached,
+ * resizes with the number of elements they copied and the time they took, and iterator creations.
+ * <p>
+ * Metrics are off by default; a queue only updates them after {@link Queue#enableMetrics()}.
+ * When they are off, the queue pays a single null check per operation.
+ * <p>
+ * The counters are updated by the thread that owns the queue without synchronization.
+ * They can be read from other threads, e.g. through JMX after {@link #register(String)}, but the
+ * values read there may be slightly out of date. Every resize is also reported as a
+ * {@link QueueResizeEvent} to Java Flight Recorder when a recording has that event enabled.
+ */
+public class QueueMetrics implements QueueMetricsMXBean {
+
+    // Size of one array slot in this JVM
+    private static final int REFERENCE_SIZE = referenceSize();
+
+    //Variables
+    private long pushFirstCount, pushLastCount, popFirstCount, popLastCount;
+    private int highWaterMark;
+    private long growCount, shrinkCount, elementsCopied, resizeNanos;
+    private long iteratorCount;
+    private ObjectName objectName;
+
+    void onPushFirst(int count, int size) {
+        pushFirstCount += count;
+        if (size > highWaterMark) {
+            highWaterMark = size;
+        }
+    }
+
+    void onPushLast(int count, int size) {
+        pushLastCount += count;
+        if (size > highWaterMark) {
+            highWaterMark = size;
+        }
+    }
+
+    void onPopFirst(int count) {
+        popFirstCount += count;
+    }
+
+    void onPopLast(int count) {
+        popLastCount += count;
+    }
+
+    void onResize(int oldCapacity, int newCapacity, int copied, long nanos) {
+        if (newCapacity > oldCapacity) {
+            growCount++;
+        } else {
+            shrinkCount++;
+        }
+        elementsCopied += copied;
+        resizeNanos += nanos;
+    }
+
+    void onIterator() {
+        iteratorCount++;
+    }
+
+    @Override
+    public long getPushFirstCount() {
+        return pushFirstCount;
+    }
+
+    @Override
+    public long getPushLastCount() {
+        return pushLastCount;
+    }
+
+    @Override
+    public long getPopFirstCount() {
+        return popFirstCount;
+    }
+
+    @Override
+    public long getPopLastCount() {
+        return popLastCount;
+    }
+
+    @Override
+    public int getHighWaterMark() {
+        return highWaterMark;
+    }
+
+    @Override
+    public long getGrowCount() {
+        return growCount;
+    }
+
+    @Override
+    public long getShrinkCount() {
+        return shrinkCount;
+    }
+
+    @Override
+    public long getElementsCopied() {
+        return elementsCopied;
+    }
+
+    /**
+     * Returns the number of bytes of element references copied by resizes, with the reference size of this JVM
+     * (4 bytes with compressed object pointers, 8 bytes without them on a 64-bit JVM).
+     */
+    @Override
+    public long getBytesCopied() {
+        return elementsCopied * REFERENCE_SIZE;
+    }
+
+    @Override
+    public long getResizeNanos() {
+        return resizeNanos;
+    }
+
+    @Override
+    public long getIteratorCount() {
+        return iteratorCount;
+    }
+
+    @Override
+    public void reset() {
+        pushFirstCount = 0;
+        pushLastCount = 0;
+        popFirstCount = 0;
+        popLastCount = 0;
+        highWaterMark = 0;
+        growCount = 0;
+        shrinkCount = 0;
+        elementsCopied = 0;
+        resizeNanos = 0;
+        iteratorCount = 0;
+    }
+
+    // Asks HotSpot whether references are compressed; other JVMs fall back to the data model
+    private static int referenceSize() {
+        try {
+            HotSpotDiagnosticMXBean hotSpot = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class);
+            if (hotSpot != null) {
+                return Boolean.parseBoolean(hotSpot.getVMOption("UseCompressedOops").getValue()) ? 4 : 8;
+            }
+        } catch (IllegalArgumentException e) {
+            // No such option: a 32-bit JVM
+        }
+        return "64".equals(System.getProperty("sun.arch.data.model")) ? 8 : 4;
+    }
+
+    /**
+     * Registers these metrics with the platform MBean server
+     * as {@code com.mycompany.dequeue:type=Queue,name=<name>}.
+     *
+     * @param name The name that identifies the queue.
+     * @throws IllegalStateException If the MBean cannot be registered, e.g. because the name is taken.
+     */
+    public void register(String name) {
+        MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+        try {
+            ObjectName on = new ObjectName("com.mycompany.dequeue:type=Queue,name=" + ObjectName.quote(name));
+            server.registerMBean(this, on);
+            objectName = on;
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot register queue metrics " + name, e);
+        }
+    }
+
+    /**
+     * Removes these metrics from the platform MBean server, if they were registered.
+     */
+    public void unregister() {
+        if (objectName == null) {
+            return;
+        }
+        try {
+            ManagementFactory.getPlatformMBeanServer().unregisterMBean(objectName);
+        } catch (JMException e) {
+            throw new IllegalStateException("Cannot unregister queue metrics " + objectName, e);
+        } finally {
+            objectName = null;
+        }
+    }
+}
@@ -0,0 +1,26 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+/**
+ * The JMX view of {@link QueueMetrics}.
+ */
+public interface QueueMetricsMXBean {
+    long getPushFirstCount();
+    long getPushLastCount();
+    long getPopFirstCount();
+    long getPopLastCount();
+    int getHighWaterMark();
+    long getGrowCount();
+    long getShrinkCount();
+    long getElementsCopied();
+    long getBytesCopied();
+    long getResizeNanos();
+    long getIteratorCount();
+    /**
+     * Reset all counters to zero
+     */
+    void reset();
+}
@@ -0,0 +1,31 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import jdk.jfr.Category;
+import jdk.jfr.Description;
+import jdk.jfr.Event;
+import jdk.jfr.Label;
+import jdk.jfr.Name;
+
+/**
+ * Java Flight Recorder event for a resize of a {@link Queue} that has metrics enabled.
+ * The duration of the event is the time spent allocating the new array and copying the elements.
+ */
+@Name("com.mycompany.dequeue.QueueResize")
+@Label("Queue Resize")
+@Category("Dequeue")
+@Description("A queue grew or shrank its array")
+class QueueResizeEvent extends Event {
+
+    @Label("Old Capacity")
+    int oldCapacity;
+
+    @Label("New Capacity")
+    int newCapacity;
+
+    @Label("Elements Copied")
+    int elementsCopied;
+}
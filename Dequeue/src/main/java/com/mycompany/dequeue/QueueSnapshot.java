@@ -0,0 +1,244 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.StreamCorruptedException;
+import java.io.UncheckedIOException;
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.nio.channels.GatheringByteChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+
+/**
+ * Writes a {@link Queue} to a channel and reads it back, in a compact binary format.
+ * <p>
+ * The format is a 20-byte header (magic, version, number of elements, number of element bytes) followed by
+ * the elements from front to rear, each encoded by an {@link ElementCodec}. Writing walks the live range of the circular
+ * array as at most two contiguous pieces (see {@link Queue#forEach}) and encodes the elements into a few
+ * direct buffers, which go to the channel in one gathering write when it is a {@link GatheringByteChannel}
+ * (a {@code FileChannel} or {@code SocketChannel}). Reading creates the queue with room for every element
+ * of a snapshot of up to 65536 elements, so such a restore never resizes; a larger one grows as its elements
+ * are read, so that the count in a corrupt header cannot allocate a huge array. Reading takes exactly the bytes
+ * of the snapshot and no more, so a snapshot can be followed by other data on the same channel.
+ * <p>
+ * {@link Queue} is also {@link java.io.Serializable}; this format is much smaller and faster for large
+ * queues of numbers or strings, since it writes no class descriptors or object handles.
+ */
+public final class QueueSnapshot {
+
+    private static final int MAGIC = 0x51534E50; // "QSNP"
+    private static final int VERSION = 1;
+    private static final int HEADER_BYTES = 3 * Integer.BYTES + Long.BYTES;
+    private static final int CHUNK_BYTES = 1 << 18;
+    private static final int CHUNKS = 4;
+    // The header's count is not trusted with more than this many slots before the elements arrive
+    private static final int PRESIZE_LIMIT = 1 << 16;
+
+    private QueueSnapshot() {
+    }
+
+    /**
+     * Writes the elements of the queue to the channel. The queue must not be modified meanwhile.
+     *
+     * @param <E> the element type
+     * @param queue The queue to write.
+     * @param codec The codec that encodes the elements.
+     * @param channel The channel to write to; it is not closed.
+     * @return The number of bytes written.
+     * @throws IOException If the channel fails.
+     */
+    public static <E> long write(Queue<E> queue, ElementCodec<? super E> codec, WritableByteChannel channel) throws IOException {
+        // The sizes are known without encoding, so the header can say how many bytes follow
+        long payload = 0;
+        for (E elem : queue) {
+            payload += codec.encodedSize(elem);
+        }
+        ChunkWriter writer = new ChunkWriter(channel);
+        writer.reserve(HEADER_BYTES).putInt(MAGIC).putInt(VERSION).putInt(queue.size()).putLong(payload);
+        try {
+            queue.forEach(elem -> writer.put(elem, codec));
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        writer.flush();
+        return writer.written;
+    }
+
+    /**
+     * Reads a queue written by {@link #write(Queue, ElementCodec, WritableByteChannel)}.
+     * The channel is left positioned just after the snapshot.
+     *
+     * @param <E> the element type
+     * @param channel The channel to read from; it is not closed.
+     * @param codec The codec that decodes the elements; it must match the one used for writing.
+     * @return A new queue with the elements in their original order.
+     * @throws StreamCorruptedException If the bytes are not a queue snapshot, or the elements do not fill
+     * exactly the number of bytes given in the header.
+     * @throws EOFException If the channel ends before the last element.
+     * @throws IOException If the channel fails.
+     */
+    public static <E> Queue<E> read(ReadableByteChannel channel, ElementCodec<E> codec) throws IOException {
+        ChunkReader reader = new ChunkReader(channel, HEADER_BYTES);
+        while (reader.buffer.remaining() < HEADER_BYTES) {
+            // Check the magic as soon as it is there, so other bytes are reported as such even if short
+            if (reader.buffer.remaining() >= Integer.BYTES && reader.buffer.getInt(0) != MAGIC) {
+                throw new StreamCorruptedException("Not a queue snapshot");
+            }
+            reader.refill();
+        }
+        ByteBuffer buffer = reader.buffer;
+        if (buffer.getInt() != MAGIC) {
+            throw new StreamCorruptedException("Not a queue snapshot");
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) {
+            throw new StreamCorruptedException("Unsupported snapshot version: " + version);
+        }
+        int count = buffer.getInt();
+        if (count < 0 || count > Queue.MAXIMUM_CAPACITY) {
+            throw new StreamCorruptedException("Illegal size: " + count);
+        }
+        long payload = buffer.getLong();
+        if (payload < 0) {
+            throw new StreamCorruptedException("Illegal byte count: " + payload);
+        }
+        reader.unread = payload;
+
+        // Large enough for every element of a small snapshot; a larger one grows as its elements are read,
+        // so a corrupt count cannot allocate a huge array before a single element has been checked
+        Queue<E> queue = new Queue<>(Math.min(count, PRESIZE_LIMIT));
+        try {
+            while (queue.size() < count) {
+                int position = reader.buffer.position();
+                try {
+                    queue.pushLast(codec.decode(reader.buffer));
+                } catch (BufferUnderflowException e) {
+                    // Only part of the element has been read: keep it and read more
+                    reader.buffer.position(position);
+                    reader.refill();
+                }
+            }
+        } catch (UncheckedIOException e) {
+            throw e.getCause();
+        }
+        if (reader.buffer.hasRemaining() || reader.unread > 0) {
+            throw new StreamCorruptedException("Snapshot has bytes after its last element");
+        }
+        return queue;
+    }
+
+    // Reads the snapshot in chunks, never asking the channel for more bytes than the snapshot has left
+    private static final class ChunkReader {
+
+        private final ReadableByteChannel channel;
+        private ByteBuffer buffer = ByteBuffer.allocateDirect(CHUNK_BYTES).flip();
+        private long unread;
+
+        ChunkReader(ReadableByteChannel channel, long unread) {
+            this.channel = channel;
+            this.unread = unread;
+        }
+
+        // Moves the unread bytes to the start (growing the buffer if they fill it) and reads more after them
+        void refill() throws IOException {
+            if (unread == 0) {
+                throw new StreamCorruptedException("Snapshot element runs past the end of the snapshot");
+            }
+            if (buffer.remaining() == buffer.capacity()) {
+                ByteBuffer larger = ByteBuffer.allocateDirect(2 * buffer.capacity());
+                larger.put(buffer);
+                buffer = larger;
+            } else {
+                buffer.compact();
+            }
+            buffer.limit((int) Math.min(buffer.capacity(), buffer.position() + unread));
+            int read;
+            do {
+                read = channel.read(buffer);
+            } while (read == 0);
+            if (read < 0) {
+                throw new EOFException("Truncated queue snapshot");
+            }
+            unread -= read;
+            buffer.flip();
+        }
+    }
+
+    // Encodes into a few chunks and writes them together once they are all full
+    private static final class ChunkWriter {
+
+        private final WritableByteChannel channel;
+        private final ByteBuffer[] chunks = new ByteBuffer[CHUNKS];
+        private int current;
+        private long written;
+
+        ChunkWriter(WritableByteChannel channel) {
+            this.channel = channel;
+            for (int i = 0; i < CHUNKS; i++) {
+                chunks[i] = ByteBuffer.allocateDirect(CHUNK_BYTES);
+            }
+        }
+
+        <T> void put(T elem, ElementCodec<? super T> codec) {
+            try {
+                int size = codec.encodedSize(elem);
+                if (size > CHUNK_BYTES) {
+                    // Too large for a chunk: write it on its own
+                    flush();
+                    ByteBuffer buffer = ByteBuffer.allocate(size);
+                    codec.encode(elem, buffer);
+                    writeFully(buffer.flip());
+                } else {
+                    codec.encode(elem, reserve(size));
+                }
+            } catch (IOException e) {
+                throw new UncheckedIOException(e);
+            }
+        }
+
+        ByteBuffer reserve(int size) throws IOException {
+            if (chunks[current].remaining() < size) {
+                current++;
+                if (current == CHUNKS) {
+                    flush();
+                }
+            }
+            return chunks[current];
+        }
+
+        void flush() throws IOException {
+            int used = Math.min(current + 1, CHUNKS);
+            long bytes = 0;
+            for (int i = 0; i < used; i++) {
+                bytes += chunks[i].flip().remaining();
+            }
+            if (channel instanceof GatheringByteChannel) {
+                GatheringByteChannel gathering = (GatheringByteChannel) channel;
+                while (bytes > 0) {
+                    long n = gathering.write(chunks, 0, used);
+                    written += n;
+                    bytes -= n;
+                }
+            } else {
+                for (int i = 0; i < used; i++) {
+                    writeFully(chunks[i]);
+                }
+            }
+            for (int i = 0; i < used; i++) {
+                chunks[i].clear();
+            }
+            current = 0;
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                written += channel.write(buffer);
+            }
+        }
+    }
+}
@@ -0,0 +1,114 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.io.Serializable;
+
+/**
+ * Decides when a {@link Queue} gives memory back.
+ * <p>
+ * A queue shrinks after a pop when {@code size * shrinkRatio <= capacity}. The new capacity is the
+ * smallest power of two that is at least {@code size * hysteresis} (and at least the minimum capacity),
+ * so that after a shrink the queue has room to grow again before it has to reallocate.
+ * The gap between the shrink ratio and the hysteresis keeps a queue whose size oscillates
+ * around a threshold from growing and shrinking on every operation.
+ * <p>
+ * The default policy ({@link #defaultPolicy()}) keeps the original behaviour of the queue:
+ * halve the capacity when the queue is a quarter full, never go below {@link Queue#DEFAULT_CAPACITY},
+ * and reallocate a default-sized array on {@link Queue#clear()}.
+ * Subclasses may override {@link #shrinkCapacity(int, int)} to plug in a different strategy.
+ */
+public class ResizePolicy implements Serializable {
+
+    private static final long serialVersionUID = 1L;
+
+    private static final ResizePolicy DEFAULT = new ResizePolicy(Queue.DEFAULT_CAPACITY, 4, 2, true, false);
+
+    private final int minCapacity;
+    private final int shrinkRatio;
+    private final int hysteresis;
+    private final boolean autoShrink;
+    private final boolean retainOnClear;
+
+    /**
+     * Constructs a new resize policy.
+     *
+     * @param minCapacity The capacity below which the queue never shrinks (rounded up to a power of two).
+     * @param shrinkRatio The queue shrinks when {@code size * shrinkRatio <= capacity}.
+     * @param hysteresis The capacity after a shrink is at least {@code size * hysteresis}; must be smaller than the shrink ratio.
+     * @param autoShrink {@code true} to shrink after pops, {@code false} to shrink only on {@link Queue#trimToSize()}.
+     * @param retainOnClear {@code true} if {@link Queue#clear()} keeps the current array and only nulls its slots.
+     * @throws IllegalArgumentException If the parameters are inconsistent.
+     */
+    public ResizePolicy(int minCapacity, int shrinkRatio, int hysteresis, boolean autoShrink, boolean retainOnClear) {
+        if (hysteresis < 1 || shrinkRatio <= hysteresis) {
+            throw new IllegalArgumentException("Need 1 <= hysteresis < shrinkRatio, got hysteresis="
+                    + hysteresis + ", shrinkRatio=" + shrinkRatio);
+        }
+        this.minCapacity = Queue.roundUpToPowerOfTwo(minCapacity);
+        this.shrinkRatio = shrinkRatio;
+        this.hysteresis = hysteresis;
+        this.autoShrink = autoShrink;
+        this.retainOnClear = retainOnClear;
+    }
+
+    /**
+     * Returns the policy that matches the original queue behaviour.
+     *
+     * @return The default resize policy.
+     */
+    public static ResizePolicy defaultPolicy() {
+        return DEFAULT;
+    }
+
+    /**
+     * Returns a policy that never shrinks automatically and keeps the array on clear.
+     * Memory is only given back by an explicit {@link Queue#trimToSize()}.
+     *
+     * @param minCapacity The capacity below which {@link Queue#trimToSize()} does not shrink.
+     * @return A resize policy that defers shrinking.
+     */
+    public static ResizePolicy deferred(int minCapacity) {
+        return new ResizePolicy(minCapacity, 4, 2, false, true);
+    }
+
+    public int getMinCapacity() {
+        return minCapacity;
+    }
+
+    public boolean isAutoShrink() {
+        return autoShrink;
+    }
+
+    public boolean isRetainOnClear() {
+        return retainOnClear;
+    }
+
+    /**
+     * Checks, after a pop, whether the queue should shrink.
+     *
+     * @param size The number of elements in the queue.
+     * @param capacity The current capacity of the queue.
+     * @return {@code true} if the queue should shrink.
+     */
+    public boolean shouldShrink(int size, int capacity) {
+        return autoShrink && capacity > minCapacity && (long) size * shrinkRatio <= capacity;
+    }
+
+    /**
+     * Returns the capacity the queue should shrink to.
+     *
+     * @param size The number of elements in the queue.
+     * @param capacity The current capacity of the queue.
+     * @return A power of two between the minimum capacity and the current capacity.
+     */
+    public int shrinkCapacity(int size, int capacity) {
+        long wanted = Math.max((long) size * hysteresis, minCapacity);
+        if (wanted >= capacity) {
+            return capacity;
+        }
+        return Queue.roundUpToPowerOfTwo((int) wanted);
+    }
+}
@@ -0,0 +1,285 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.util.Arrays;
+import java.util.ConcurrentModificationException;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+
+/**
+ * A double ended queue made of fixed-size array chunks, so that it never copies its elements when it grows or shrinks.
+ * <p>
+ * The chunks are kept in order in a {@link Queue} that serves as the directory. The first element is at index
+ * {@code head} of the first chunk and the last element is just before index {@code tail} of the last chunk.
+ * When an end runs out of room, a new chunk is pushed onto that end of the directory; when a chunk becomes empty,
+ * it is popped from the directory. Only the directory (one reference per chunk) is ever resized, so growing
+ * and shrinking cost O(1) per chunk and no single large array is allocated.
+ * <p>
+ * Empty chunks are kept in a small pool and reused, so a queue that keeps growing and shrinking
+ * by a few chunks does not allocate. The iterators walk one chunk at a time.
+ *
+ * @param <E> the element type
+ */
+public class SegmentedQueue<E> implements DeQueue<E> {
+
+    protected static final int DEFAULT_CHUNK_SIZE = 1024;
+    protected static final int DEFAULT_MAX_POOLED_CHUNKS = 4;
+
+    //Variables
+    private final int chunkSize;
+    private final int maxPooledChunks;
+    private final Queue<E[]> chunks = new Queue<>();
+    private final Queue<E[]> pool = new Queue<>();
+    private int head, tail, size;
+    private int modCount;
+
+    /**
+     * Constructs a new SegmentedQueue with the default chunk size.
+     */
+    public SegmentedQueue() {
+        this(DEFAULT_CHUNK_SIZE, DEFAULT_MAX_POOLED_CHUNKS);
+    }
+
+    /**
+     * Constructs a new SegmentedQueue.
+     *
+     * @param chunkSize The number of elements per chunk; rounded up to a power of two.
+     * @param maxPooledChunks The maximum number of empty chunks kept for reuse.
+     */
+    public SegmentedQueue(int chunkSize, int maxPooledChunks) {
+        if (maxPooledChunks < 0) {
+            throw new IllegalArgumentException("Illegal pool size: " + maxPooledChunks);
+        }
+        this.chunkSize = Queue.roundUpToPowerOfTwo(chunkSize);
+        this.maxPooledChunks = maxPooledChunks;
+    }
+
+    /**
+     * Returns the number of chunks currently in use.
+     *
+     * @return The number of chunks holding elements.
+     */
+    public int getChunkCount() {
+        return chunks.size();
+    }
+
+    /**
+     * Returns the number of empty chunks kept for reuse.
+     *
+     * @return The number of pooled chunks.
+     */
+    public int getPooledChunkCount() {
+        return pool.size();
+    }
+
+    @Override
+    public void pushFirst(E elem) {
+        // Start a new chunk in front if the first one has no room before head
+        if (head == 0) {
+            chunks.pushFirst(acquire());
+            head = chunkSize;
+            if (size == 0) {
+                tail = chunkSize;
+            }
+        }
+        chunks.first()[--head] = elem;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public void pushLast(E elem) {
+        // Start a new chunk at the end if the last one is full
+        if (size == 0 || tail == chunkSize) {
+            chunks.pushLast(acquire());
+            tail = 0;
+            if (size == 0) {
+                head = 0;
+            }
+        }
+        chunks.last()[tail++] = elem;
+        size++;
+        modCount++;
+    }
+
+    @Override
+    public E popFirst() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        E[] chunk = chunks.first();
+        E elem = chunk[head];
+        chunk[head++] = null;
+        size--;
+        modCount++;
+
+        // Give the first chunk back once it is used up
+        if (size == 0) {
+            release(chunks.popFirst());
+            head = 0;
+            tail = 0;
+        } else if (head == chunkSize) {
+            release(chunks.popFirst());
+            head = 0;
+        }
+        return elem;
+    }
+
+    @Override
+    public E popLast() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        E[] chunk = chunks.last();
+        E elem = chunk[--tail];
+        chunk[tail] = null;
+        size--;
+        modCount++;
+
+        // Give the last chunk back once it is used up
+        if (size == 0) {
+            release(chunks.popLast());
+            head = 0;
+            tail = 0;
+        } else if (tail == 0) {
+            release(chunks.popLast());
+            tail = chunkSize;
+        }
+        return elem;
+    }
+
+    @Override
+    public E first() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return chunks.first()[head];
+    }
+
+    @Override
+    public E last() {
+        if (isEmpty()) {
+            throw new NoSuchElementException("Queue is empty");
+        }
+        return chunks.last()[tail - 1];
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size == 0;
+    }
+
+    @Override
+    public int size() {
+        return size;
+    }
+
+    @Override
+    public void clear() {
+        while (!chunks.isEmpty()) {
+            E[] chunk = chunks.popFirst();
+            Arrays.fill(chunk, null);
+            release(chunk);
+        }
+        head = 0;
+        tail = 0;
+        size = 0;
+        modCount++;
+    }
+
+    /**
+     * Returns an iterator over the elements from front to end, walking one chunk at a time.
+     */
+    @Override
+    public Iterator<E> iterator() {
+        return new IteratorImpl();
+    }
+
+    /**
+     * Returns an iterator over the elements from end to front, walking one chunk at a time.
+     */
+    @Override
+    public Iterator<E> descendingIterator() {
+        return new DescendingIteratorImpl();
+    }
+
+    private class IteratorImpl implements Iterator<E> {
+        private final Iterator<E[]> chunkIterator = chunks.iterator();
+        private final int expectedModCount = modCount;
+        private E[] chunk;
+        private int cur = head;
+        private int remaining = size;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            if (chunk == null || cur == chunkSize) {
+                chunk = chunkIterator.next();
+                if (cur == chunkSize) {
+                    cur = 0;
+                }
+            }
+            remaining--;
+            return chunk[cur++];
+        }
+    }
+
+    private class DescendingIteratorImpl implements Iterator<E> {
+        private final Iterator<E[]> chunkIterator = chunks.descendingIterator();
+        private final int expectedModCount = modCount;
+        private E[] chunk;
+        private int cur = tail;
+        private int remaining = size;
+
+        @Override
+        public boolean hasNext() {
+            return remaining > 0;
+        }
+
+        @Override
+        public E next() {
+            if (modCount != expectedModCount) {
+                throw new ConcurrentModificationException();
+            }
+            if (remaining == 0) {
+                throw new NoSuchElementException();
+            }
+            if (chunk == null || cur == 0) {
+                chunk = chunkIterator.next();
+                if (cur == 0) {
+                    cur = chunkSize;
+                }
+            }
+            remaining--;
+            return chunk[--cur];
+        }
+    }
+
+    // Takes a chunk from the pool, or allocates one if the pool is empty
+    private E[] acquire() {
+        if (!pool.isEmpty()) {
+            return pool.popLast();
+        }
+        return (E[]) new Object[chunkSize];
+    }
+
+    // Keeps an empty chunk for reuse if the pool has room; otherwise leaves it to the garbage collector
+    private void release(E[] chunk) {
+        if (pool.size() < maxPooledChunks) {
+            pool.pushLast(chunk);
+        }
+    }
+}
@@ -0,0 +1,217 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.util.NoSuchElementException;
+
+/**
+ * A sliding window over a stream of values that answers min, max, sum and count in O(1).
+ * <p>
+ * Values are pushed at the end of the window with a timestamp and expire from the front, either because the
+ * window holds more than {@code maxCount} values or because they are older than {@code maxAge}
+ * (timestamps are in any unit the caller chooses, e.g. milliseconds).
+ * <p>
+ * The window itself is a pair of primitive circular arrays ({@link DoubleQueue} for the values,
+ * {@link LongQueue} for the timestamps). The sum and count are updated on every push and expiry.
+ * Min and max each use a monotonic companion deque: it holds the sequence numbers and values of the
+ * elements that can still become the minimum (or maximum), so the answer is always at its front.
+ * Each value enters and leaves a companion deque at most once, so all operations are amortized O(1).
+ */
+public class SlidingWindow {
+
+    //Variables
+    private final int maxCount;
+    private final long maxAge;
+    private final DoubleQueue values = new DoubleQueue();
+    private final LongQueue timestamps = new LongQueue();
+    // Monotonic companions: sequence numbers and values, increasing for min and decreasing for max
+    private final LongQueue minSeqs = new LongQueue();
+    private final DoubleQueue minValues = new DoubleQueue();
+    private final LongQueue maxSeqs = new LongQueue();
+    private final DoubleQueue maxValues = new DoubleQueue();
+    // Sequence number of the front element and of the next pushed element
+    private long firstSeq, nextSeq;
+    private double sum;
+
+    /**
+     * Constructs a new SlidingWindow.
+     *
+     * @param maxCount The maximum number of values in the window.
+     * @param maxAge Values whose timestamp is at least this much older than the newest timestamp expire.
+     * @throws IllegalArgumentException If a limit is not positive.
+     */
+    public SlidingWindow(int maxCount, long maxAge) {
+        if (maxCount <= 0 || maxAge <= 0) {
+            throw new IllegalArgumentException("Limits must be positive: maxCount=" + maxCount + ", maxAge=" + maxAge);
+        }
+        this.maxCount = maxCount;
+        this.maxAge = maxAge;
+    }
+
+    /**
+     * Returns a window that keeps the last n values.
+     *
+     * @param n The number of values in the window.
+     * @return A count-based window.
+     */
+    public static SlidingWindow ofCount(int n) {
+        return new SlidingWindow(n, Long.MAX_VALUE);
+    }
+
+    /**
+     * Returns a window that keeps the values of the given time span.
+     *
+     * @param maxAge The age at which values expire, in the unit of the timestamps.
+     * @return A time-based window.
+     */
+    public static SlidingWindow ofDuration(long maxAge) {
+        return new SlidingWindow(Integer.MAX_VALUE, maxAge);
+    }
+
+    /**
+     * Adds a value at the end of the window and expires the values that fall out of it.
+     *
+     * @param timestamp The time of the value; must not be smaller than the previous timestamp.
+     * @param value The value.
+     * @throws IllegalArgumentException If the timestamp goes backwards.
+     */
+    public void add(long timestamp, double value) {
+        if (!timestamps.isEmpty() && timestamp < timestamps.lastLong()) {
+            throw new IllegalArgumentException("Timestamp went backwards: " + timestamp);
+        }
+        long seq = nextSeq++;
+        values.pushLastDouble(value);
+        timestamps.pushLastLong(timestamp);
+        sum += value;
+
+        // Drop candidates that can no longer be the minimum or maximum
+        while (!minValues.isEmpty() && minValues.lastDouble() >= value) {
+            minValues.popLastDouble();
+            minSeqs.popLastLong();
+        }
+        minValues.pushLastDouble(value);
+        minSeqs.pushLastLong(seq);
+        while (!maxValues.isEmpty() && maxValues.lastDouble() <= value) {
+            maxValues.popLastDouble();
+            maxSeqs.popLastLong();
+        }
+        maxValues.pushLastDouble(value);
+        maxSeqs.pushLastLong(seq);
+
+        if (values.size() > maxCount) {
+            expireFirst();
+        }
+        expire(timestamp);
+    }
+
+    /**
+     * Expires the values that are too old at the given time, without adding a value.
+     *
+     * @param now The current time, in the unit of the timestamps.
+     */
+    public void expire(long now) {
+        while (!timestamps.isEmpty() && now - timestamps.firstLong() >= maxAge) {
+            expireFirst();
+        }
+    }
+
+    /**
+     * Returns the number of values in the window.
+     *
+     * @return The number of values.
+     */
+    public int count() {
+        return values.size();
+    }
+
+    /**
+     * Checks whether the window is empty.
+     *
+     * @return {@code true} if the window holds no values.
+     */
+    public boolean isEmpty() {
+        return values.isEmpty();
+    }
+
+    /**
+     * Returns the sum of the values in the window.
+     *
+     * @return The sum, or 0 if the window is empty.
+     */
+    public double sum() {
+        return sum;
+    }
+
+    /**
+     * Returns the average of the values in the window.
+     *
+     * @return The average, or NaN if the window is empty.
+     */
+    public double average() {
+        return values.isEmpty() ? Double.NaN : sum / values.size();
+    }
+
+    /**
+     * Returns the smallest value in the window.
+     *
+     * @return The minimum.
+     * @throws NoSuchElementException If the window is empty.
+     */
+    public double min() {
+        if (values.isEmpty()) {
+            throw new NoSuchElementException("Window is empty");
+        }
+        return minValues.firstDouble();
+    }
+
+    /**
+     * Returns the largest value in the window.
+     *
+     * @return The maximum.
+     * @throws NoSuchElementException If the window is empty.
+     */
+    public double max() {
+        if (values.isEmpty()) {
+            throw new NoSuchElementException("Window is empty");
+        }
+        return maxValues.firstDouble();
+    }
+
+    /**
+     * Removes all values.
+     */
+    public void clear() {
+        values.clear();
+        timestamps.clear();
+        minSeqs.clear();
+        minValues.clear();
+        maxSeqs.clear();
+        maxValues.clear();
+        firstSeq = nextSeq;
+        sum = 0;
+    }
+
+    private void expireFirst() {
+        double value = values.popFirstDouble();
+        timestamps.popFirstLong();
+        long seq = firstSeq++;
+        if (values.isEmpty()) {
+            // Reset instead of subtracting, so rounding errors do not build up across empty windows
+            sum = 0;
+        } else {
+            sum -= value;
+        }
+
+        // The expired element leaves a companion deque only if it is still at its front
+        if (minSeqs.firstLong() == seq) {
+            minSeqs.popFirstLong();
+            minValues.popFirstDouble();
+        }
+        if (maxSeqs.firstLong() == seq) {
+            maxSeqs.popFirstLong();
+            maxValues.popFirstDouble();
+        }
+    }
+}
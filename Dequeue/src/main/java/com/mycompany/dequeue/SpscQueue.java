@@ -0,0 +1,205 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+import java.util.function.Consumer;
+
+/**
+ * A bounded, lock-free ring buffer for exactly one producer thread and one consumer thread.
+ * <p>
+ * It uses the same circular array as {@link Queue} (power-of-two capacity, indices wrapped with a bit mask),
+ * but the front and rear are ever-increasing sequences: {@code head} is only written by the consumer and
+ * {@code tail} only by the producer. Each side publishes its sequence with a release store and reads the
+ * other side's sequence with an acquire load, so no locks and no CAS are needed.
+ * <p>
+ * To avoid false sharing, the two sequences are padded onto separate cache lines, and each side keeps a
+ * cached copy of the other side's sequence that it only refreshes when the ring looks full (producer)
+ * or empty (consumer).
+ * <p>
+ * {@code null} elements are not allowed: a {@code null} from {@link #poll()} means the ring is empty.
+ *
+ * @param <E> the element type
+ */
+public class SpscQueue<E> extends SpscConsumerFields {
+
+    private static final VarHandle HEAD;
+    private static final VarHandle TAIL;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            HEAD = lookup.findVarHandle(SpscConsumerFields.class, "head", long.class);
+            TAIL = lookup.findVarHandle(SpscProducerFields.class, "tail", long.class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    private final E[] array;
+    private final int mask;
+
+    // Padding after the consumer fields
+    long p10, p11, p12, p13, p14, p15, p16, p17;
+
+    /**
+     * Constructs a new SpscQueue.
+     *
+     * @param capacity The minimum number of elements the ring can hold; rounded up to a power of two.
+     */
+    public SpscQueue(int capacity) {
+        array = (E[]) new Object[Queue.roundUpToPowerOfTwo(capacity)];
+        mask = array.length - 1;
+    }
+
+    /**
+     * Returns the capacity of the ring.
+     *
+     * @return The maximum number of elements the ring can hold.
+     */
+    public int capacity() {
+        return array.length;
+    }
+
+    /**
+     * Adds an element at the end of the ring. Must only be called from the producer thread.
+     *
+     * @param elem The element to be added.
+     * @return {@code true} if the element was added, {@code false} if the ring is full.
+     * @throws NullPointerException If the element is null.
+     */
+    public boolean offer(E elem) {
+        if (elem == null) {
+            throw new NullPointerException();
+        }
+        long t = tail;
+        if (t - cachedHead >= array.length) {
+            // Looks full: refresh the cached head from the consumer
+            cachedHead = (long) HEAD.getAcquire(this);
+            if (t - cachedHead >= array.length) {
+                return false;
+            }
+        }
+        array[(int) t & mask] = elem;
+
+        // Publish the element to the consumer
+        TAIL.setRelease(this, t + 1);
+        return true;
+    }
+
+    /**
+     * Removes and returns the element at the front of the ring. Must only be called from the consumer thread.
+     *
+     * @return The element at the front of the ring, or {@code null} if the ring is empty.
+     */
+    public E poll() {
+        long h = head;
+        if (h >= cachedTail) {
+            // Looks empty: refresh the cached tail from the producer
+            cachedTail = (long) TAIL.getAcquire(this);
+            if (h >= cachedTail) {
+                return null;
+            }
+        }
+        int index = (int) h & mask;
+        E elem = array[index];
+        array[index] = null;
+
+        // Hand the slot back to the producer
+        HEAD.setRelease(this, h + 1);
+        return elem;
+    }
+
+    /**
+     * Returns the element at the front of the ring without removing it. Must only be called from the consumer thread.
+     *
+     * @return The element at the front of the ring, or {@code null} if the ring is empty.
+     */
+    public E peek() {
+        long h = head;
+        if (h >= cachedTail) {
+            cachedTail = (long) TAIL.getAcquire(this);
+            if (h >= cachedTail) {
+                return null;
+            }
+        }
+        return array[(int) h & mask];
+    }
+
+    /**
+     * Removes up to {@code limit} elements and passes them to the given action.
+     * The producer's sequence is read once and the consumer's sequence is published once for the whole batch.
+     * Must only be called from the consumer thread.
+     *
+     * @param action The action that receives the elements, in order.
+     * @param limit The maximum number of elements to remove.
+     * @return The number of elements removed, 0 if {@code limit} is not positive.
+     */
+    public int drain(Consumer<? super E> action, int limit) {
+        if (limit <= 0) {
+            return 0;
+        }
+        long h = head;
+        long available = (long) TAIL.getAcquire(this) - h;
+        cachedTail = h + available;
+        int n = (int) Math.min(available, limit);
+        for (int i = 0; i < n; i++) {
+            int index = (int) (h + i) & mask;
+            E elem = array[index];
+            array[index] = null;
+            action.accept(elem);
+        }
+        HEAD.setRelease(this, h + n);
+        return n;
+    }
+
+    /**
+     * Returns the number of elements in the ring.
+     * When called while the other thread is active, the result is only an estimate.
+     *
+     * @return The number of elements in the ring.
+     */
+    public int size() {
+        // Read head first so that the difference can never be negative
+        long h = (long) HEAD.getAcquire(this);
+        long t = (long) TAIL.getAcquire(this);
+        return (int) Math.min(t - h, array.length);
+    }
+
+    /**
+     * Checks whether the ring is empty.
+     *
+     * @return {@code true} if the ring contains no elements, {@code false} otherwise.
+     */
+    public boolean isEmpty() {
+        return (long) TAIL.getAcquire(this) == (long) HEAD.getAcquire(this);
+    }
+}
+
+// The field layout below keeps the producer's and the consumer's fields on separate cache lines.
+// Fields of a superclass are laid out before the fields of its subclasses.
+
+abstract class SpscPad0 {
+    long p00, p01, p02, p03, p04, p05, p06, p07;
+}
+
+abstract class SpscProducerFields extends SpscPad0 {
+    // Written only by the producer
+    long tail;
+    // The producer's last known value of head
+    long cachedHead;
+}
+
+abstract class SpscPad1 extends SpscProducerFields {
+    long p20, p21, p22, p23, p24, p25, p26, p27;
+}
+
+abstract class SpscConsumerFields extends SpscPad1 {
+    // Written only by the consumer
+    long head;
+    // The consumer's last known value of tail
+    long cachedTail;
+}
@@ -0,0 +1,329 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.lang.reflect.Array;
+import java.util.concurrent.TimeUnit;
+import java.util.function.Consumer;
+
+/**
+ * A hashed timing wheel: a ring of buckets, one per tick, each holding a {@link Queue} of timeouts.
+ * <p>
+ * The ring has a power-of-two number of buckets, so the bucket of a deadline (counted in ticks) is
+ * {@code deadline & (wheelSize - 1)}, the same mask indexing as {@link Queue}. Scheduling appends to one
+ * bucket and cancelling only sets a flag, so both are O(1) however many timeouts are pending; cancelled
+ * timeouts are dropped when their bucket comes up. Each {@link #tick()} drains the current bucket in bulk
+ * with {@link Queue#drainTo}. The bucket queues keep their arrays when drained, so a wheel in a steady
+ * state does not reallocate them.
+ * <p>
+ * A single wheel spans {@code wheelSize} ticks; longer timeouts stay in their bucket for several rounds of
+ * the ring. A hierarchical wheel instead has coarser levels, each spanning {@code wheelSize} times the level
+ * below: a long timeout waits in a higher level and cascades down as its deadline comes closer, so no bucket
+ * is ever revisited for timeouts that are not due.
+ * <p>
+ * The wheel has no clock and is not thread-safe: the owner schedules timeouts and calls {@link #tick()} or
+ * {@link #advance(long)} once per tick duration, and the tasks run on the calling thread.
+ */
+public class TimingWheel {
+
+    private static final int DEFAULT_WHEEL_SIZE = 512;
+    private static final int BUCKET_CAPACITY = 16;
+
+    //Variables
+    private final long tickNanos;
+    private final int mask;
+    private final int bits;
+    private final boolean hierarchical;
+    // buckets[level][index]; levels and buckets are created when first used
+    private final Queue<Timeout>[][] buckets;
+    // An empty bucket swapped in while a bucket is drained, so that timeouts can be added back
+    private Queue<Timeout> spare = newBucket();
+    private long currentTick;
+    private int pending;
+
+    /**
+     * Constructs a new hierarchical TimingWheel with 512 buckets per level.
+     *
+     * @param tickDuration The duration of one tick.
+     * @param unit The unit of the tick duration.
+     */
+    public TimingWheel(long tickDuration, TimeUnit unit) {
+        this(tickDuration, unit, DEFAULT_WHEEL_SIZE, true);
+    }
+
+    /**
+     * Constructs a new TimingWheel.
+     *
+     * @param tickDuration The duration of one tick.
+     * @param unit The unit of the tick duration.
+     * @param wheelSize The number of buckets per level; rounded up to a power of two.
+     * @param hierarchical {@code true} to put long timeouts in coarser levels, {@code false} for a single ring
+     *                     in which long timeouts go around several times.
+     * @throws IllegalArgumentException If the tick duration is not positive or the wheel size is illegal.
+     */
+    public TimingWheel(long tickDuration, TimeUnit unit, int wheelSize, boolean hierarchical) {
+        tickNanos = unit.toNanos(tickDuration);
+        if (tickNanos <= 0) {
+            throw new IllegalArgumentException("Illegal tick duration: " + tickDuration + " " + unit);
+        }
+        int size = Queue.roundUpToPowerOfTwo(wheelSize);
+        mask = size - 1;
+        bits = Integer.numberOfTrailingZeros(size);
+        this.hierarchical = hierarchical;
+        // Enough levels to cover any deadline that fits in a long
+        int levels = hierarchical ? (Long.SIZE - 1 + bits - 1) / bits : 1;
+        buckets = newArray(Queue[].class, levels);
+    }
+
+    /**
+     * Schedules a task to run once the given delay has passed, rounded up to whole ticks (at least one).
+     *
+     * @param task The task to run.
+     * @param delay The delay.
+     * @param unit The unit of the delay.
+     * @return The handle to cancel the timeout.
+     * @throws NullPointerException If the task is null.
+     */
+    public Timeout schedule(Runnable task, long delay, TimeUnit unit) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        long nanos = Math.max(unit.toNanos(delay), 0L);
+        long ticks = Math.max(1L, nanos / tickNanos + (nanos % tickNanos == 0 ? 0 : 1));
+        long deadline = currentTick + ticks < 0 ? Long.MAX_VALUE : currentTick + ticks;
+        Timeout timeout = new Timeout(task, deadline);
+        insert(timeout);
+        pending++;
+        return timeout;
+    }
+
+    /**
+     * Advances the wheel by one tick and runs the tasks whose deadline is that tick.
+     * If tasks throw, the other due tasks still run, and the first exception is rethrown at the end.
+     *
+     * @return The number of tasks that ran.
+     */
+    public int tick() {
+        long tick = ++currentTick;
+        if (hierarchical) {
+            // Move the timeouts of coarser buckets that start at this tick down, from the highest level
+            for (int level = buckets.length - 1; level > 0; level--) {
+                if (buckets[level] != null && (tick & ((1L << (bits * level)) - 1)) == 0) {
+                    Queue<Timeout> bucket = takeBucket(level, (int) (tick >>> (bits * level)) & mask);
+                    if (bucket != null) {
+                        bucket.drainTo(timeout -> {
+                            if (!timeout.cancelled) {
+                                insert(timeout);
+                            }
+                        });
+                        spare = bucket;
+                    }
+                }
+            }
+        }
+
+        Queue<Timeout> bucket = takeBucket(0, (int) tick & mask);
+        if (bucket == null) {
+            return 0;
+        }
+        Expiry expiry = new Expiry(tick);
+        bucket.drainTo(expiry);
+        spare = bucket;
+        if (expiry.failure != null) {
+            throw expiry.failure;
+        }
+        return expiry.count;
+    }
+
+    /**
+     * Advances the wheel by the given number of ticks, running every task that becomes due.
+     * When no timeout is pending, the ticks are skipped at once.
+     *
+     * @param ticks The number of ticks.
+     * @return The number of tasks that ran.
+     */
+    public int advance(long ticks) {
+        int count = 0;
+        for (long i = 0; i < ticks; i++) {
+            if (pending == 0) {
+                currentTick += ticks - i;
+                break;
+            }
+            count += tick();
+        }
+        return count;
+    }
+
+    /**
+     * Returns the number of ticks the wheel has advanced since it was created.
+     *
+     * @return The current tick.
+     */
+    public long getCurrentTick() {
+        return currentTick;
+    }
+
+    /**
+     * Returns the duration of one tick.
+     *
+     * @return The tick duration in nanoseconds.
+     */
+    public long getTickNanos() {
+        return tickNanos;
+    }
+
+    /**
+     * Returns the number of timeouts that are neither expired nor cancelled.
+     *
+     * @return The number of pending timeouts.
+     */
+    public int size() {
+        return pending;
+    }
+
+    /**
+     * Checks whether no timeout is pending.
+     *
+     * @return {@code true} if no timeout is pending.
+     */
+    public boolean isEmpty() {
+        return pending == 0;
+    }
+
+    // Adds the timeout to the bucket of its deadline, in the finest level whose ring reaches it
+    private void insert(Timeout timeout) {
+        int level = 0;
+        if (hierarchical) {
+            // The finest level in which the deadline and the current tick share the same window
+            while (level < buckets.length - 1
+                    && (timeout.deadline >>> (bits * (level + 1))) != (currentTick >>> (bits * (level + 1)))) {
+                level++;
+            }
+        }
+        int index = (int) (timeout.deadline >>> (bits * level)) & mask;
+        if (buckets[level] == null) {
+            buckets[level] = newArray(Queue.class, mask + 1);
+        }
+        if (buckets[level][index] == null) {
+            buckets[level][index] = newBucket();
+        }
+        buckets[level][index].pushLast(timeout);
+    }
+
+    // Replaces a bucket by the spare one and returns it, or returns null if it is empty
+    private Queue<Timeout> takeBucket(int level, int index) {
+        Queue<Timeout> bucket = buckets[level] == null ? null : buckets[level][index];
+        if (bucket == null || bucket.isEmpty()) {
+            return null;
+        }
+        buckets[level][index] = spare;
+        spare = null;
+        return bucket;
+    }
+
+    private static Queue<Timeout> newBucket() {
+        return new Queue<>(BUCKET_CAPACITY, ResizePolicy.deferred(BUCKET_CAPACITY));
+    }
+
+    // Generic arrays cannot be created directly; this is the one place the bucket arrays are cast
+    @SuppressWarnings("unchecked")
+    private static <T> T[] newArray(Class<?> componentType, int length) {
+        return (T[]) Array.newInstance(componentType, length);
+    }
+
+    // Runs the due timeouts of a drained bucket and puts back those of a later round
+    private final class Expiry implements Consumer<Timeout> {
+
+        private final long tick;
+        private int count;
+        private RuntimeException failure;
+
+        Expiry(long tick) {
+            this.tick = tick;
+        }
+
+        @Override
+        public void accept(Timeout timeout) {
+            if (timeout.cancelled) {
+                return;
+            }
+            if (timeout.deadline > tick) {
+                // Single ring: the timeout is due in a later round
+                insert(timeout);
+                return;
+            }
+            timeout.expired = true;
+            pending--;
+            count++;
+            try {
+                timeout.task.run();
+            } catch (RuntimeException e) {
+                if (failure == null) {
+                    failure = e;
+                } else {
+                    failure.addSuppressed(e);
+                }
+            }
+        }
+    }
+
+    /**
+     * The handle of a scheduled task.
+     */
+    public final class Timeout {
+
+        private final Runnable task;
+        private final long deadline;
+        private boolean cancelled;
+        private boolean expired;
+
+        private Timeout(Runnable task, long deadline) {
+            this.task = task;
+            this.deadline = deadline;
+        }
+
+        /**
+         * Cancels the timeout, so that its task does not run. The timeout stays in its bucket until
+         * the bucket comes up, but no longer counts as pending.
+         *
+         * @return {@code true} if the timeout was pending, {@code false} if it had already expired or been cancelled.
+         */
+        public boolean cancel() {
+            if (cancelled || expired) {
+                return false;
+            }
+            cancelled = true;
+            pending--;
+            return true;
+        }
+
+        /**
+         * Returns the tick at which the task runs.
+         *
+         * @return The deadline, in ticks since the wheel was created.
+         */
+        public long getDeadline() {
+            return deadline;
+        }
+
+        /**
+         * Checks whether the timeout was cancelled.
+         *
+         * @return {@code true} if the timeout was cancelled.
+         */
+        public boolean isCancelled() {
+            return cancelled;
+        }
+
+        /**
+         * Checks whether the task has run (or is running).
+         *
+         * @return {@code true} if the timeout expired.
+         */
+        public boolean isExpired() {
+            return expired;
+        }
+    }
+}
@@ -0,0 +1,272 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.lang.invoke.VarHandle;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * A small fixed-size thread pool that schedules tasks with one {@link WorkStealingQueue} per worker.
+ * <p>
+ * A task submitted from a worker thread is pushed onto that worker's own deque and, while the worker has
+ * local work, it pops from there in LIFO order without any CAS. Tasks submitted from other threads go to a
+ * shared {@link ConcurrentDeQueue}. An idle worker first takes from the shared queue and then steals the
+ * oldest task of another worker, starting at a random victim. Workers that find nothing spin briefly and
+ * then park until a task is submitted.
+ * <p>
+ * {@link #close()} stops accepting tasks, lets the workers finish every task already queued and waits for them.
+ * A task that throws is reported to the worker thread's uncaught exception handler and the worker carries on.
+ */
+public class WorkStealingPool implements Executor, AutoCloseable {
+
+    private static final int SPINS = 64;
+    // Upper bound of a park, in case a wake-up is missed
+    private static final long PARK_NANOS = 1_000_000L;
+
+    //Variables
+    private final Worker[] workers;
+    private final ConcurrentDeQueue<Runnable> submissions = new ConcurrentDeQueue<>();
+    private final ThreadLocal<Worker> currentWorker = new ThreadLocal<>();
+    private final AtomicInteger idleCount = new AtomicInteger();
+    // Calls of execute() between their shutdown check and the end of their push
+    private final AtomicInteger submitting = new AtomicInteger();
+    private volatile boolean shutdown;
+
+    /**
+     * Constructs a new WorkStealingPool with one worker per available processor.
+     */
+    public WorkStealingPool() {
+        this(Runtime.getRuntime().availableProcessors());
+    }
+
+    /**
+     * Constructs a new WorkStealingPool with daemon worker threads.
+     *
+     * @param parallelism The number of worker threads.
+     */
+    public WorkStealingPool(int parallelism) {
+        this(parallelism, runnable -> {
+            Thread thread = new Thread(runnable);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Constructs a new WorkStealingPool.
+     *
+     * @param parallelism The number of worker threads.
+     * @param threadFactory The factory that creates the worker threads.
+     * @throws IllegalArgumentException If parallelism is not positive.
+     */
+    public WorkStealingPool(int parallelism, ThreadFactory threadFactory) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("Illegal parallelism: " + parallelism);
+        }
+        workers = new Worker[parallelism];
+        for (int i = 0; i < parallelism; i++) {
+            workers[i] = new Worker(i);
+            workers[i].thread = threadFactory.newThread(workers[i]);
+        }
+        for (Worker worker : workers) {
+            worker.thread.start();
+        }
+    }
+
+    /**
+     * Schedules a task. From a worker thread of this pool the task goes to the worker's own deque,
+     * otherwise to the shared submission queue.
+     *
+     * @param task The task to run.
+     * @throws NullPointerException If the task is null.
+     * @throws RejectedExecutionException If the pool has been closed.
+     */
+    @Override
+    public void execute(Runnable task) {
+        if (task == null) {
+            throw new NullPointerException();
+        }
+        // Announced before the shutdown check: a worker does not exit while a push may still land
+        submitting.incrementAndGet();
+        try {
+            if (shutdown) {
+                throw new RejectedExecutionException("Pool closed");
+            }
+            Worker worker = currentWorker.get();
+            if (worker != null) {
+                worker.deque.push(task);
+            } else {
+                submissions.pushLast(task);
+            }
+        } finally {
+            submitting.decrementAndGet();
+        }
+        // Order the push before reading the idle count; the worker increments it before its last scan
+        VarHandle.fullFence();
+        if (idleCount.get() > 0) {
+            wakeOne();
+        }
+    }
+
+    /**
+     * Returns the number of worker threads.
+     *
+     * @return The number of worker threads.
+     */
+    public int getParallelism() {
+        return workers.length;
+    }
+
+    /**
+     * Returns the total number of tasks that workers took from other workers' deques.
+     *
+     * @return The number of successful steals.
+     */
+    public long getStealCount() {
+        long steals = 0;
+        for (Worker worker : workers) {
+            steals += worker.steals;
+        }
+        return steals;
+    }
+
+    /**
+     * Stops accepting tasks, runs the tasks already queued and waits for the workers to finish.
+     * An interrupt does not cut the wait short, since queued tasks would then be left behind;
+     * the interrupt status of the calling thread is set again before returning.
+     */
+    @Override
+    public void close() {
+        shutdown = true;
+        for (Worker worker : workers) {
+            LockSupport.unpark(worker.thread);
+        }
+        boolean interrupted = false;
+        for (Worker worker : workers) {
+            while (worker.thread != Thread.currentThread()) {
+                try {
+                    worker.thread.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private void wakeOne() {
+        for (Worker worker : workers) {
+            if (worker.parked) {
+                LockSupport.unpark(worker.thread);
+                return;
+            }
+        }
+    }
+
+    private boolean hasQueuedTasks() {
+        // A submission in progress counts as queued, its task may not be visible yet
+        if (submitting.get() > 0 || !submissions.isEmpty()) {
+            return true;
+        }
+        for (Worker worker : workers) {
+            if (!worker.deque.isEmpty()) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private final class Worker implements Runnable {
+
+        private final WorkStealingQueue<Runnable> deque = new WorkStealingQueue<>(64);
+        private Thread thread;
+        private volatile boolean parked;
+        // Written only by this worker
+        private volatile long steals;
+        private int seed;
+
+        Worker(int index) {
+            this.seed = index * 0x9E3779B9 + 1;
+        }
+
+        @Override
+        public void run() {
+            currentWorker.set(this);
+            int misses = 0;
+            while (true) {
+                Runnable task = nextTask();
+                if (task != null) {
+                    runTask(task);
+                    misses = 0;
+                } else if (shutdown && !hasQueuedTasks()) {
+                    return;
+                } else if (++misses < SPINS) {
+                    Thread.onSpinWait();
+                } else {
+                    park();
+                    misses = 0;
+                }
+            }
+        }
+
+        private Runnable nextTask() {
+            Runnable task = deque.pop();
+            if (task == null) {
+                task = submissions.pollFirst();
+            }
+            if (task == null && workers.length > 1) {
+                task = steal();
+            }
+            return task;
+        }
+
+        private Runnable steal() {
+            // xorshift to pick the first victim
+            seed ^= seed << 13;
+            seed ^= seed >>> 17;
+            seed ^= seed << 5;
+            int start = (seed & Integer.MAX_VALUE) % workers.length;
+            for (int i = 0; i < workers.length; i++) {
+                Worker victim = workers[(start + i) % workers.length];
+                if (victim != this) {
+                    Runnable task = victim.deque.steal();
+                    if (task != null) {
+                        steals++;
+                        return task;
+                    }
+                }
+            }
+            return null;
+        }
+
+        private void park() {
+            parked = true;
+            idleCount.incrementAndGet();
+            if (!shutdown && !hasQueuedTasks()) {
+                LockSupport.parkNanos(this, PARK_NANOS);
+            }
+            idleCount.decrementAndGet();
+            parked = false;
+        }
+
+        private void runTask(Runnable task) {
+            try {
+                task.run();
+            } catch (RuntimeException | Error e) {
+                Thread.UncaughtExceptionHandler handler = thread.getUncaughtExceptionHandler();
+                if (handler != null) {
+                    handler.uncaughtException(thread, e);
+                }
+            }
+        }
+    }
+}
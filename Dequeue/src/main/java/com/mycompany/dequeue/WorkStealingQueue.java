@@ -0,0 +1,179 @@
+/*
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Licenses/license-default.txt to change this license
+ * Click nbfs://nbhost/SystemFileSystem/Templates/Classes/Class.java to edit this template
+ */
+package com.mycompany.dequeue;
+
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.VarHandle;
+
+/**
+ * A Chase-Lev work-stealing deque on a growable circular array.
+ * <p>
+ * One owner thread pushes and pops at the bottom (the end) like a stack, without any CAS except when it
+ * competes with a thief for the very last element. Any number of thief threads steal from the top (the front)
+ * with a CAS on {@code top}. Like {@link Queue}, the array length is a power of two and indices wrap with a
+ * bit mask; {@code top} and {@code bottom} only ever grow, so a slot index is {@code index & (length - 1)}.
+ * <p>
+ * When the array is full, the owner copies the live range into an array twice as large and publishes it;
+ * thieves that still read the old array see the same elements there, so growing needs no coordination.
+ * <p>
+ * {@code null} elements are not allowed: {@code null} from {@link #pop()} or {@link #steal()} means that
+ * there was nothing to take (or, for steal, that another thief won the race).
+ * <p>
+ * The memory ordering follows Lê, Pop, Cohen and Zappa Nardelli, "Correct and Efficient Work-Stealing
+ * for Weak Memory Models" (PPoPP 2013).
+ *
+ * @param <E> the element type
+ */
+public class WorkStealingQueue<E> {
+
+    private static final VarHandle TOP;
+    private static final VarHandle BOTTOM;
+    private static final VarHandle ARRAY;
+
+    static {
+        try {
+            MethodHandles.Lookup lookup = MethodHandles.lookup();
+            TOP = lookup.findVarHandle(WorkStealingQueue.class, "top", long.class);
+            BOTTOM = lookup.findVarHandle(WorkStealingQueue.class, "bottom", long.class);
+            ARRAY = lookup.findVarHandle(WorkStealingQueue.class, "array", Object[].class);
+        } catch (ReflectiveOperationException e) {
+            throw new ExceptionInInitializerError(e);
+        }
+    }
+
+    //Variables
+    private volatile long top;
+    private volatile long bottom;
+    private volatile Object[] array;
+
+    /**
+     * Constructs a new WorkStealingQueue with default capacity.
+     */
+    public WorkStealingQueue() {
+        this(Queue.DEFAULT_CAPACITY);
+    }
+
+    /**
+     * Constructs a new WorkStealingQueue.
+     *
+     * @param initialCapacity The minimum number of elements the deque can hold before growing.
+     */
+    public WorkStealingQueue(int initialCapacity) {
+        array = new Object[Queue.roundUpToPowerOfTwo(initialCapacity)];
+    }
+
+    /**
+     * Adds an element at the bottom. Must only be called by the owner thread.
+     *
+     * @param elem The element to be added.
+     * @throws NullPointerException If the element is null.
+     */
+    public void push(E elem) {
+        if (elem == null) {
+            throw new NullPointerException();
+        }
+        long b = (long) BOTTOM.getOpaque(this);
+        long t = (long) TOP.getAcquire(this);
+        Object[] a = (Object[]) ARRAY.getOpaque(this);
+        if (b - t > a.length - 1) {
+            a = grow(a, t, b);
+        }
+        a[(int) b & (a.length - 1)] = elem;
+
+        // Publish the element to thieves
+        BOTTOM.setRelease(this, b + 1);
+    }
+
+    /**
+     * Removes and returns the element at the bottom (the most recently pushed one).
+     * Must only be called by the owner thread.
+     *
+     * @return The element, or {@code null} if the deque is empty.
+     */
+    public E pop() {
+        long b = (long) BOTTOM.getOpaque(this) - 1;
+        Object[] a = (Object[]) ARRAY.getOpaque(this);
+        // Claim the bottom slot before looking at top; the store must not be reordered with the load
+        BOTTOM.setOpaque(this, b);
+        VarHandle.fullFence();
+        long t = (long) TOP.getOpaque(this);
+        if (t > b) {
+            // Empty
+            BOTTOM.setOpaque(this, b + 1);
+            return null;
+        }
+        int index = (int) b & (a.length - 1);
+        E elem = (E) a[index];
+        if (t == b) {
+            // Last element: race against the thieves for it
+            if (!TOP.compareAndSet(this, t, t + 1)) {
+                elem = null;
+            }
+            BOTTOM.setOpaque(this, b + 1);
+        }
+        if (elem != null) {
+            a[index] = null;
+        }
+        return elem;
+    }
+
+    /**
+     * Removes and returns the element at the top (the oldest one). May be called by any thread.
+     * Slots taken by thieves are not cleared until the owner reuses them.
+     *
+     * @return The element, or {@code null} if the deque is empty or another thread took the element first.
+     */
+    public E steal() {
+        long t = (long) TOP.getAcquire(this);
+        VarHandle.fullFence();
+        long b = (long) BOTTOM.getAcquire(this);
+        if (t >= b) {
+            return null;
+        }
+        Object[] a = (Object[]) ARRAY.getAcquire(this);
+        E elem = (E) a[(int) t & (a.length - 1)];
+        if (!TOP.compareAndSet(this, t, t + 1)) {
+            // Lost the race to another thief or to the owner
+            return null;
+        }
+        return elem;
+    }
+
+    /**
+     * Returns the number of elements. When other threads are active, the result is only an estimate.
+     *
+     * @return The number of elements.
+     */
+    public int size() {
+        long n = (long) BOTTOM.getAcquire(this) - (long) TOP.getAcquire(this);
+        return (int) Math.max(n, 0);
+    }
+
+    /**
+     * Checks whether the deque is empty. When other threads are active, the result is only an estimate.
+     *
+     * @return {@code true} if the deque contains no elements.
+     */
+    public boolean isEmpty() {
+        return size() == 0;
+    }
+
+    protected int getCapacity() {
+        return array.length;
+    }
+
+    // Copies the live range [t, b) into an array twice as large; only called by the owner
+    private Object[] grow(Object[] a, long t, long b) {
+        if (a.length == Queue.MAXIMUM_CAPACITY) {
+            throw new IllegalStateException("Queue too big");
+        }
+        Object[] newArray = new Object[2 * a.length];
+        for (long i = t; i < b; i++) {
+            newArray[(int) i & (newArray.length - 1)] = a[(int) i & (a.length - 1)];
+        }
+        ARRAY.setRelease(this, newArray);
+        return newArray;
+    }
+}
@@ -0,0 +1,404 @@
+package com.mycompany.dequeue;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Consumer;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class ConcurrentQueuesTest {
+
+    @Test
+    public void testSpscQueueSingleThread() {
+        SpscQueue<Integer> queue = new SpscQueue<>(5);
+
+        // The capacity is rounded up to a power of two.
+        assertEquals(8, queue.capacity());
+        assertNull(queue.poll());
+
+        for (int i = 0; i < 8; i++) {
+            assertTrue(queue.offer(i));
+        }
+        // The ring is bounded.
+        assertFalse(queue.offer(8));
+        assertEquals(8, queue.size());
+
+        assertEquals(Integer.valueOf(0), queue.peek());
+        assertEquals(Integer.valueOf(0), queue.poll());
+        assertTrue(queue.offer(8));
+
+        StringBuilder drained = new StringBuilder();
+        // A limit that is not positive removes nothing.
+        assertEquals(0, queue.drain(drained::append, 0));
+        assertEquals(0, queue.drain(drained::append, -1));
+        assertEquals(8, queue.size());
+        assertEquals(8, queue.drain(drained::append, 100));
+        assertEquals("12345678", drained.toString());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testSpscQueueTwoThreads() throws InterruptedException {
+        final int count = 100_000;
+        SpscQueue<Integer> queue = new SpscQueue<>(1024);
+
+        Thread producer = new Thread(() -> {
+            for (int i = 0; i < count; i++) {
+                while (!queue.offer(i)) {
+                    Thread.yield();
+                }
+            }
+        });
+        producer.start();
+
+        // The consumer must see every element exactly once and in order.
+        int expected = 0;
+        while (expected < count) {
+            Integer elem = queue.poll();
+            if (elem == null) {
+                Thread.yield();
+                continue;
+            }
+            assertEquals(expected, elem.intValue());
+            expected++;
+        }
+        producer.join();
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentDeQueueManyThreads() throws InterruptedException {
+        final int threads = 4;
+        final int perThread = 20_000;
+        ConcurrentDeQueue<Integer> queue = new ConcurrentDeQueue<>();
+        AtomicLong popped = new AtomicLong();
+
+        // Every thread pushes and pops at both ends.
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (i % 2 == 0) {
+                        queue.pushLast(i);
+                    } else {
+                        queue.pushFirst(i);
+                    }
+                    Integer elem = (i % 3 == 0) ? queue.pollFirst() : queue.pollLast();
+                    if (elem != null) {
+                        popped.incrementAndGet();
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Nothing is lost or duplicated.
+        assertEquals((long) threads * perThread, popped.get() + queue.size());
+        assertNull(new ConcurrentDeQueue<Integer>().pollFirst());
+    }
+
+    @Test
+    public void testConcurrentDeQueueEveryElementOnce() throws InterruptedException {
+        final int threads = 4;
+        final int perThread = 50_000;
+        ConcurrentDeQueue<Integer> queue = new ConcurrentDeQueue<>();
+        List<List<Integer>> popped = new ArrayList<>();
+
+        // The deque grows to several segments and shrinks to empty again, so pops run both
+        // under one lock (ends far apart) and under both locks (ends close).
+        Thread[] workers = new Thread[threads];
+        for (int t = 0; t < threads; t++) {
+            List<Integer> mine = new ArrayList<>();
+            popped.add(mine);
+            final int base = t * perThread;
+            workers[t] = new Thread(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    if (i % 4 == 0) {
+                        queue.pushFirst(base + i);
+                    } else {
+                        queue.pushLast(base + i);
+                    }
+                    int pops = (i / 500) % 2 == 0 ? (i % 2) : 2;
+                    for (int j = 0; j < pops; j++) {
+                        Integer elem = (i + j) % 3 == 0 ? queue.pollLast() : queue.pollFirst();
+                        if (elem != null) {
+                            mine.add(elem);
+                        }
+                    }
+                }
+            });
+            workers[t].start();
+        }
+        for (Thread worker : workers) {
+            worker.join();
+        }
+
+        // Every pushed element was popped by exactly one thread or is still queued.
+        boolean[] seen = new boolean[threads * perThread];
+        List<Integer> all = new ArrayList<>();
+        popped.forEach(all::addAll);
+        queue.drainTo(all::add);
+        assertEquals(seen.length, all.size());
+        for (int elem : all) {
+            assertFalse("Duplicate " + elem, seen[elem]);
+            seen[elem] = true;
+        }
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testConcurrentDeQueueSnapshotIterator() {
+        ConcurrentDeQueue<String> queue = new ConcurrentDeQueue<>();
+        queue.pushLast("B");
+        queue.pushLast("C");
+        queue.pushFirst("A");
+
+        Iterator<String> iterator = queue.iterator();
+        // Modifying the queue does not affect an existing iterator.
+        queue.popFirst();
+        StringBuilder result = new StringBuilder();
+        iterator.forEachRemaining(result::append);
+        assertEquals("ABC", result.toString());
+
+        result.setLength(0);
+        queue.descendingIterator().forEachRemaining(result::append);
+        assertEquals("CB", result.toString());
+    }
+
+    @Test
+    public void testBoundedBlockingQueueCapacity() throws InterruptedException {
+        BoundedBlockingQueue<Integer> queue = new BoundedBlockingQueue<>(2);
+        queue.pushLast(1);
+        queue.putFirst(0);
+        assertEquals(0, queue.remainingCapacity());
+
+        // The non-blocking push fails and the timed offer gives up when the queue stays full.
+        try {
+            queue.pushLast(2);
+            fail("Expected IllegalStateException on a full queue");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertFalse(queue.offerLast(2, 10, TimeUnit.MILLISECONDS));
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(0, queue.drainTo(drained, -1));
+        assertEquals(2, queue.drainTo(drained));
+        assertEquals(List.of(0, 1), drained);
+        assertNull(queue.pollFirst(10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testBoundedBlockingQueueAwaitSize() throws InterruptedException {
+        BoundedBlockingQueue<Integer> queue = new BoundedBlockingQueue<>(8);
+        assertTrue(queue.awaitSize(0, 0, TimeUnit.MILLISECONDS));
+        assertFalse(queue.awaitSize(1, 10, TimeUnit.MILLISECONDS));
+
+        // The waiter wakes once the third element is pushed, not on every push.
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < 3; i++) {
+                    Thread.sleep(5);
+                    queue.putLast(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+        assertTrue(queue.awaitSize(3, 10, TimeUnit.SECONDS));
+        producer.join();
+        assertEquals(3, queue.size());
+        // Waiting removes nothing.
+        assertTrue(queue.awaitSize(3, 0, TimeUnit.MILLISECONDS));
+        assertFalse(queue.awaitSize(4, 10, TimeUnit.MILLISECONDS));
+    }
+
+    @Test
+    public void testBoundedBlockingQueueProducerConsumer() throws InterruptedException {
+        final int count = 50_000;
+        BoundedBlockingQueue<Integer> queue = new BoundedBlockingQueue<>(16);
+
+        // The producer is slowed down by the small bound, the consumer waits for elements.
+        Thread producer = new Thread(() -> {
+            try {
+                for (int i = 0; i < count; i++) {
+                    queue.putLast(i);
+                }
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        });
+        producer.start();
+
+        for (int i = 0; i < count; i++) {
+            assertEquals(Integer.valueOf(i), queue.takeFirst());
+        }
+        producer.join();
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testMicroBatcherFullBatchesAndClose() throws InterruptedException {
+        BoundedBlockingQueue<Integer> queue = new BoundedBlockingQueue<>(64);
+        List<List<Integer>> batches = new ArrayList<>();
+        // A long linger: only full batches are delivered until close.
+        MicroBatcher<Integer> batcher = new MicroBatcher<>(queue, 10, 1, TimeUnit.MINUTES, batch -> {
+            // The list is reused, so keep a copy.
+            synchronized (batches) {
+                batches.add(new ArrayList<>(batch));
+            }
+        });
+        for (int i = 0; i < 25; i++) {
+            queue.putLast(i);
+        }
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+        while (batcher.getBatchCount() < 2 && System.nanoTime() < deadline) {
+            Thread.sleep(1);
+        }
+        synchronized (batches) {
+            assertEquals(2, batches.size());
+            assertEquals(10, batches.get(1).size());
+        }
+
+        // Closing delivers the rest without waiting for the linger time.
+        batcher.close();
+        assertEquals(3, batches.size());
+        assertEquals(25, batcher.getElementCount());
+        List<Integer> all = new ArrayList<>();
+        for (List<Integer> batch : batches) {
+            all.addAll(batch);
+        }
+        for (int i = 0; i < 25; i++) {
+            assertEquals(Integer.valueOf(i), all.get(i));
+        }
+    }
+
+    @Test
+    public void testMicroBatcherLinger() throws InterruptedException {
+        BoundedBlockingQueue<String> queue = new BoundedBlockingQueue<>(16);
+        List<Integer> sizes = new ArrayList<>();
+        try (MicroBatcher<String> batcher = new MicroBatcher<>(queue, 100, 20, TimeUnit.MILLISECONDS, batch -> {
+            synchronized (sizes) {
+                sizes.add(batch.size());
+            }
+        })) {
+            queue.putLast("a");
+            queue.putLast("b");
+            queue.putLast("c");
+
+            // The partial batch goes out once the linger time has passed.
+            long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(10);
+            while (batcher.getElementCount() < 3 && System.nanoTime() < deadline) {
+                Thread.sleep(1);
+            }
+            assertEquals(3, batcher.getElementCount());
+        }
+        assertTrue(queue.isEmpty());
+        assertEquals(3, sizes.stream().mapToInt(Integer::intValue).sum());
+    }
+
+    // A mutable event for the multicast ring tests
+    private static final class Event {
+        long value;
+        long doubled;
+    }
+
+    @Test
+    public void testMulticastRingGatingAndDependencies() {
+        MulticastRing<Event> ring = new MulticastRing<>(4, Event::new);
+        MulticastRing<Event>.Reader first = ring.newReader();
+        MulticastRing<Event>.Reader second = ring.newReader();
+        // The third reader sees an event only after the first has processed it.
+        MulticastRing<Event>.Reader third = ring.newReader(first);
+
+        for (int i = 0; i < 4; i++) {
+            final long value = i;
+            assertTrue(ring.tryPublish(e -> e.value = value));
+        }
+        // The ring is full until the slowest reader (and the reader it gates) moves on.
+        assertFalse(ring.tryPublish(e -> e.value = 99));
+        assertEquals(0, third.drain(e -> fail("The dependency has not processed anything yet")));
+
+        // A limit that is not positive processes nothing and leaves the sequence alone.
+        assertEquals(0, first.drain(e -> fail("Nothing may be processed"), 0));
+        assertEquals(0, first.drain(e -> fail("Nothing may be processed"), -3));
+        assertEquals(-1, first.getSequence());
+
+        List<Long> seen = new ArrayList<>();
+        assertEquals(2, first.drain(e -> {
+            e.doubled = 2 * e.value;
+            seen.add(e.value);
+        }, 2));
+        assertEquals(2, third.drain(e -> assertEquals(2 * e.value, e.doubled)));
+        assertEquals(4, second.drain(e -> seen.add(e.value)));
+        assertEquals(1, third.getSequence());
+
+        // The first two slots are free now.
+        assertTrue(ring.tryPublish(e -> e.value = 4));
+        assertTrue(ring.tryPublish(e -> e.value = 5));
+        assertFalse(ring.tryPublish(e -> e.value = 6));
+        assertEquals(5, ring.getCursor());
+        assertEquals(List.of(0L, 1L, 0L, 1L, 2L, 3L), seen);
+
+        // A removed reader no longer holds the producer back.
+        ring.removeReader(third);
+        assertEquals(4, first.drain(e -> { }));
+        assertEquals(2, second.drain(e -> { }));
+        assertTrue(ring.tryPublish(e -> e.value = 6));
+    }
+
+    @Test
+    public void testMulticastRingAcrossThreads() throws InterruptedException {
+        final int count = 100_000;
+        MulticastRing<Event> ring = new MulticastRing<>(64, Event::new);
+        MulticastRing<Event>.Reader doubler = ring.newReader();
+        MulticastRing<Event>.Reader summer = ring.newReader();
+        MulticastRing<Event>.Reader checker = ring.newReader(doubler, summer);
+
+        AtomicLong sum = new AtomicLong();
+        AtomicLong checked = new AtomicLong();
+        Thread[] threads = {
+            readerThread(doubler, count, e -> e.doubled = 2 * e.value),
+            readerThread(summer, count, e -> sum.addAndGet(e.value)),
+            readerThread(checker, count, e -> {
+                // Events arrive in order, after the doubler has written them
+                assertEquals(checked.get(), e.value);
+                assertEquals(2 * e.value, e.doubled);
+                checked.incrementAndGet();
+            })
+        };
+        for (Thread thread : threads) {
+            thread.start();
+        }
+        for (int i = 0; i < count; i++) {
+            final long value = i;
+            ring.publish(e -> e.value = value);
+        }
+        for (Thread thread : threads) {
+            thread.join();
+        }
+        assertEquals((long) count * (count - 1) / 2, sum.get());
+        assertEquals(count, checked.get());
+    }
+
+    private static Thread readerThread(MulticastRing<Event>.Reader reader, int count, Consumer<Event> action) {
+        return new Thread(() -> {
+            long processed = 0;
+            while (processed < count) {
+                int n = reader.drain(action);
+                if (n == 0) {
+                    Thread.yield();
+                }
+                processed += n;
+            }
+        });
+    }
+}
@@ -0,0 +1,80 @@
+package com.mycompany.dequeue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.function.Supplier;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+/**
+ * Runs the same random sequence of operations on every DeQueue implementation
+ * and on a java.util.ArrayDeque, and checks that they always agree.
+ */
+public class DeQueueContractTest {
+
+    private static List<Supplier<DeQueue<Integer>>> implementations() {
+        List<Supplier<DeQueue<Integer>>> implementations = new ArrayList<>();
+        implementations.add(Queue::new);
+        implementations.add(IntQueue::new);
+        implementations.add(() -> new OffHeapQueue<>(FixedWidthCodec.INT));
+        implementations.add(() -> new SegmentedQueue<>(4, 2));
+        implementations.add(ConcurrentDeQueue::new);
+        implementations.add(() -> new MultiLevelQueue<>(1));
+        return implementations;
+    }
+
+    @Test
+    public void testRandomOperations() {
+        for (Supplier<DeQueue<Integer>> supplier : implementations()) {
+            DeQueue<Integer> queue = supplier.get();
+            String name = queue.getClass().getSimpleName();
+            ArrayDeque<Integer> expected = new ArrayDeque<>();
+            Random random = new Random(42);
+
+            for (int step = 0; step < 20_000; step++) {
+                int value = random.nextInt(1000);
+                // Grow in the first half, shrink in the second half
+                int choice = random.nextInt(step < 10_000 ? 6 : 9);
+                if (choice == 0 || choice == 1) {
+                    queue.pushFirst(value);
+                    expected.addFirst(value);
+                } else if (choice == 2 || choice == 3) {
+                    queue.pushLast(value);
+                    expected.addLast(value);
+                } else if (expected.isEmpty()) {
+                    assertTrue(name, queue.isEmpty());
+                } else if (choice % 2 == 0) {
+                    assertEquals(name, expected.pollFirst(), queue.popFirst());
+                } else {
+                    assertEquals(name, expected.pollLast(), queue.popLast());
+                }
+
+                assertEquals(name, expected.size(), queue.size());
+                if (!expected.isEmpty()) {
+                    assertEquals(name, expected.peekFirst(), queue.first());
+                    assertEquals(name, expected.peekLast(), queue.last());
+                }
+                if (step % 1000 == 0) {
+                    assertSameElements(name, expected.iterator(), queue.iterator());
+                    assertSameElements(name, expected.descendingIterator(), queue.descendingIterator());
+                }
+            }
+
+            queue.clear();
+            assertTrue(name, queue.isEmpty());
+            assertFalse(name, queue.iterator().hasNext());
+        }
+    }
+
+    private static void assertSameElements(String name, Iterator<Integer> expected, Iterator<Integer> actual) {
+        while (expected.hasNext()) {
+            assertTrue(name, actual.hasNext());
+            assertEquals(name, expected.next(), actual.next());
+        }
+        assertFalse(name, actual.hasNext());
+    }
+}
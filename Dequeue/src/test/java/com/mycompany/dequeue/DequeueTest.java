@@ -1,7 +1,18 @@
 package com.mycompany.dequeue;
 
+import com.sun.management.HotSpotDiagnosticMXBean;
+import java.lang.management.ManagementFactory;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.ConcurrentModificationException;
 import java.util.Iterator;
+import java.util.List;
 import java.util.NoSuchElementException;
+import java.util.Spliterator;
+import java.util.stream.Collectors;
+import javax.management.MBeanServer;
+import javax.management.ObjectName;
 
 import org.junit.Test;
 import static org.junit.Assert.*;
@@ -141,6 +152,71 @@ public class DequeueTest {
     }
 
 
+    // Test traversal of a queue whose array is completely full
+    @Test
+    public void testIteratorOnFullQueue() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 0; i < Queue.DEFAULT_CAPACITY; i++) {
+            queue.pushLast(i);
+        }
+        assertEquals(queue.size(), queue.getCapacity());
+
+        StringBuilder forward = new StringBuilder();
+        queue.iterator().forEachRemaining(forward::append);
+        assertEquals("0123", forward.toString());
+
+        StringBuilder backward = new StringBuilder();
+        queue.descendingIterator().forEachRemaining(backward::append);
+        assertEquals("3210", backward.toString());
+    }
+
+    @Test
+    public void testForEachAndCursor() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 0; i < 10; i++) {
+            queue.pushLast(i);
+            queue.pushFirst(-i - 1);
+        }
+
+        // forEach walks the wrapped range in order.
+        List<Integer> elements = new ArrayList<>();
+        queue.forEach(elements::add);
+        for (int i = 0; i < 20; i++) {
+            assertEquals(Integer.valueOf(i - 10), elements.get(i));
+        }
+
+        // The same cursor can be used for several traversals in both directions.
+        Queue<Integer>.Cursor cursor = queue.cursor();
+        int sum = 0;
+        while (cursor.hasNext()) {
+            sum += cursor.next();
+        }
+        assertEquals(-10, sum);
+        cursor.resetDescending();
+        assertEquals(Integer.valueOf(9), cursor.next());
+        cursor.reset();
+        assertEquals(Integer.valueOf(-10), cursor.next());
+    }
+
+    @Test
+    public void testIteratorsTrackModificationsIndependently() {
+        Queue<Integer> queue = new Queue<>();
+        queue.pushLast(1);
+        queue.pushLast(2);
+
+        Iterator<Integer> stale = queue.iterator();
+        queue.pushLast(3);
+        // A new iterator created after the modification must not revive the stale one.
+        Iterator<Integer> fresh = queue.iterator();
+        assertEquals(Integer.valueOf(1), fresh.next());
+        try {
+            stale.next();
+            fail("Expected ConcurrentModificationException");
+        } catch (ConcurrentModificationException e) {
+            // expected
+        }
+    }
+
     @Test
     public void testDoubleCapacity() {
         // Create a queue with the default capacity.
@@ -205,6 +281,436 @@ public class DequeueTest {
         assertEquals(Queue.DEFAULT_CAPACITY, queue.getCapacity());
     }
 
+    @Test
+    public void testInitialCapacity() {
+        // The requested capacity is rounded up to the next power of two.
+        assertEquals(Queue.DEFAULT_CAPACITY, new Queue<Integer>(0).getCapacity());
+        assertEquals(Queue.DEFAULT_CAPACITY, new Queue<Integer>(3).getCapacity());
+        assertEquals(16, new Queue<Integer>(16).getCapacity());
+        assertEquals(32, new Queue<Integer>(17).getCapacity());
+        assertEquals(1024, new Queue<Integer>(1000).getCapacity());
+
+        // No resize is needed up to the requested capacity.
+        Queue<Integer> queue = new Queue<>(1000);
+        for (int i = 0; i < 1000; i++) {
+            queue.pushFirst(i);
+        }
+        assertEquals(1024, queue.getCapacity());
+        assertEquals(Integer.valueOf(0), queue.last());
+        assertEquals(Integer.valueOf(999), queue.first());
+
+        try {
+            new Queue<Integer>(-1);
+            fail("Expected IllegalArgumentException for a negative capacity");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testResizeAcrossWrapPoint() {
+        Queue<Integer> queue = new Queue<>();
+
+        // Mix both ends so that the live range wraps around the end of the array on every resize.
+        for (int i = 0; i < 1000; i++) {
+            queue.pushLast(i);
+            queue.pushFirst(-i - 1);
+        }
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(-1000 + i), queue.popFirst());
+        }
+
+        // Shrinking must also keep the order.
+        int expected = 0;
+        while (!queue.isEmpty()) {
+            assertEquals(Integer.valueOf(expected++), queue.popFirst());
+        }
+        assertEquals(1000, expected);
+        assertEquals(Queue.DEFAULT_CAPACITY, queue.getCapacity());
+    }
+
+    @Test
+    public void testGrowthFactor() {
+        Queue<Integer> queue = new Queue<>(4, 4);
+        for (int i = 0; i < 5; i++) {
+            queue.pushLast(i);
+        }
+
+        // The capacity is multiplied by the growth factor.
+        assertEquals(16, queue.getCapacity());
+        assertEquals(Integer.valueOf(0), queue.first());
+        assertEquals(Integer.valueOf(4), queue.last());
+
+        try {
+            new Queue<Integer>(4, 3);
+            fail("Expected IllegalArgumentException for a growth factor that is not a power of two");
+        } catch (IllegalArgumentException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testResizePolicyHysteresis() {
+        // Shrink at one-eighth full, to four times the size, never below 64.
+        Queue<Integer> queue = new Queue<>(0, new ResizePolicy(64, 8, 4, true, false));
+        assertEquals(64, queue.getCapacity());
+
+        for (int i = 0; i < 1024; i++) {
+            queue.pushLast(i);
+        }
+        assertEquals(1024, queue.getCapacity());
+        assertEquals(4, queue.getGrowCount());
+
+        // Oscillating around the old quarter-full threshold does not resize.
+        for (int i = 0; i < 1024 - 256; i++) {
+            queue.popFirst();
+        }
+        for (int i = 0; i < 100; i++) {
+            queue.popLast();
+            queue.pushLast(i);
+        }
+        assertEquals(1024, queue.getCapacity());
+        assertEquals(0, queue.getShrinkCount());
+
+        // At one-eighth full the queue shrinks to four times its size.
+        for (int i = 0; i < 128; i++) {
+            queue.popFirst();
+        }
+        assertEquals(512, queue.getCapacity());
+        assertEquals(1, queue.getShrinkCount());
+
+        // Never below the minimum capacity.
+        while (!queue.isEmpty()) {
+            queue.popFirst();
+        }
+        assertEquals(64, queue.getCapacity());
+    }
+
+    @Test
+    public void testDeferredShrinkAndRetainOnClear() {
+        Queue<Integer> queue = new Queue<>(0, ResizePolicy.deferred(16));
+        for (int i = 0; i < 1000; i++) {
+            queue.pushLast(i);
+        }
+        for (int i = 0; i < 990; i++) {
+            queue.popFirst();
+        }
+
+        // No automatic shrinking.
+        assertEquals(1024, queue.getCapacity());
+        assertEquals(0, queue.getShrinkCount());
+
+        // trimToSize shrinks to the smallest power of two that fits, but not below the minimum.
+        queue.trimToSize();
+        assertEquals(16, queue.getCapacity());
+        assertEquals(1, queue.getShrinkCount());
+        assertEquals(Integer.valueOf(990), queue.first());
+        assertEquals(Integer.valueOf(999), queue.last());
+
+        // clear keeps the array.
+        for (int i = 0; i < 100; i++) {
+            queue.pushFirst(i);
+        }
+        queue.clear();
+        assertTrue(queue.isEmpty());
+        assertEquals(128, queue.getCapacity());
+        queue.pushLast(7);
+        assertEquals(Integer.valueOf(7), queue.first());
+    }
+
+    @Test
+    public void testBulkPushAndPop() {
+        Queue<Integer> queue = new Queue<>();
+        queue.pushLast(100);
+
+        // Bulk pushes keep the order of the array and grow the queue once.
+        queue.pushAllLast(new Integer[] {101, 102, 103, 104, 105});
+        queue.pushAllFirst(new Integer[] {97, 98, 99});
+        queue.pushAllLast(Arrays.asList(106, 107));
+        assertEquals(11, queue.size());
+        assertEquals(Integer.valueOf(97), queue.first());
+        assertEquals(Integer.valueOf(107), queue.last());
+
+        // Pop a batch from the front: front first.
+        Integer[] dst = new Integer[4];
+        assertEquals(4, queue.popFirst(4, dst));
+        assertArrayEquals(new Integer[] {97, 98, 99, 100}, dst);
+
+        // Pop a batch from the end: last element first.
+        assertEquals(3, queue.popLast(3, dst));
+        assertEquals(Arrays.asList(107, 106, 105), Arrays.asList(dst).subList(0, 3));
+
+        // Asking for more than there is pops what is left.
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(4, queue.drainTo(drained::add));
+        assertEquals(Arrays.asList(101, 102, 103, 104), drained);
+        assertTrue(queue.isEmpty());
+        assertEquals(0, queue.popFirst(10, dst));
+        assertEquals(Queue.DEFAULT_CAPACITY, queue.getCapacity());
+    }
+
+    @Test
+    public void testBulkPushAcrossWrapPoint() {
+        // Keep the capacity at 8 so that the indices are predictable.
+        Queue<Integer> queue = new Queue<>(8, ResizePolicy.deferred(8));
+
+        // On an empty queue the front moves back from index 0 and wraps to the end of the array.
+        queue.pushAllFirst(new Integer[] {1, 2, 3});
+        queue.pushLast(4);
+        for (int i = 0; i < 3; i++) {
+            queue.popLast();
+        }
+
+        // The rear is now near the end of the array, so the bulk push at the end wraps around.
+        queue.pushAllLast(new Integer[] {2, 3, 4, 5});
+        Integer[] dst = new Integer[5];
+        assertEquals(5, queue.popFirst(5, dst));
+        assertArrayEquals(new Integer[] {1, 2, 3, 4, 5}, dst);
+        assertEquals(8, queue.getCapacity());
+
+        // Popping at an offset leaves the start of the array alone, also when the range wraps.
+        queue.pushAllLast(new Integer[] {6, 7, 8, 9});
+        assertEquals(4, queue.popFirst(4, dst, 1));
+        assertArrayEquals(new Integer[] {1, 6, 7, 8, 9}, dst);
+    }
+
+    @Test
+    public void testSpliteratorAcrossWrapPoint() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 0; i < 500; i++) {
+            queue.pushLast(i);
+            queue.pushFirst(-i - 1);
+        }
+
+        Spliterator<Integer> suffix = queue.spliterator();
+        assertTrue(suffix.hasCharacteristics(Spliterator.SIZED | Spliterator.SUBSIZED | Spliterator.ORDERED));
+        assertEquals(1000, suffix.estimateSize());
+
+        // Splitting gives two balanced halves, the prefix first.
+        Spliterator<Integer> prefix = suffix.trySplit();
+        assertEquals(500, prefix.estimateSize());
+        assertEquals(500, suffix.estimateSize());
+        List<Integer> elements = new ArrayList<>();
+        prefix.forEachRemaining(elements::add);
+        while (suffix.tryAdvance(elements::add)) {
+            // keep advancing
+        }
+        assertEquals(1000, elements.size());
+        for (int i = 0; i < 1000; i++) {
+            assertEquals(Integer.valueOf(i - 500), elements.get(i));
+        }
+    }
+
+    @Test
+    public void testStreams() {
+        Queue<Integer> queue = new Queue<>();
+        for (int i = 1; i <= 100_000; i++) {
+            queue.pushLast(i);
+        }
+        assertEquals(5_000_050_000L, queue.parallelStream().mapToLong(Integer::longValue).sum());
+        assertEquals(queue.stream().collect(Collectors.toList()),
+                queue.parallelStream().collect(Collectors.toList()));
+    }
+
+    @Test
+    public void testRandomAccess() {
+        Queue<Integer> queue = new Queue<>();
+        // A sorted queue whose range wraps around the end of the array.
+        for (int i = 0; i < 50; i++) {
+            queue.pushLast(10 * i + 10);
+            queue.pushFirst(-10 * i);
+        }
+
+        assertEquals(Integer.valueOf(-490), queue.get(0));
+        assertEquals(Integer.valueOf(0), queue.get(49));
+        assertEquals(Integer.valueOf(500), queue.get(99));
+
+        assertEquals(49, queue.binarySearch(0, Comparator.naturalOrder()));
+        assertEquals(0, queue.binarySearch(-490, Comparator.naturalOrder()));
+        // Not found: -(insertion point) - 1.
+        assertEquals(-51, queue.binarySearch(5, Comparator.naturalOrder()));
+        assertEquals(-101, queue.binarySearch(1000, Comparator.naturalOrder()));
+        assertEquals(-1, queue.binarySearch(-1000, Comparator.naturalOrder()));
+
+        assertEquals(Integer.valueOf(500), queue.set(99, 501));
+        assertEquals(Integer.valueOf(501), queue.last());
+
+        try {
+            queue.get(100);
+            fail("Expected IndexOutOfBoundsException");
+        } catch (IndexOutOfBoundsException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testMetrics() throws Exception {
+        Queue<Integer> queue = new Queue<>();
+        // Nothing is collected until metrics are enabled.
+        queue.pushLast(0);
+        assertNull(queue.getMetrics());
+
+        QueueMetrics metrics = queue.enableMetrics();
+        for (int i = 1; i < 16; i++) {
+            queue.pushLast(i);
+        }
+        queue.pushFirst(-1);
+        queue.popLast();
+        queue.popFirst(4, new Integer[4]);
+        queue.iterator();
+
+        assertEquals(15, metrics.getPushLastCount());
+        assertEquals(1, metrics.getPushFirstCount());
+        assertEquals(1, metrics.getPopLastCount());
+        assertEquals(4, metrics.getPopFirstCount());
+        assertEquals(17, metrics.getHighWaterMark());
+        // 4 -> 8 -> 16 -> 32, copying 4 + 8 + 16 elements.
+        assertEquals(3, metrics.getGrowCount());
+        assertEquals(28, metrics.getElementsCopied());
+        // Compressed references by default on a 64-bit JVM with a small heap.
+        boolean compressed = ManagementFactory.getPlatformMXBean(HotSpotDiagnosticMXBean.class)
+                .getVMOption("UseCompressedOops").getValue().equals("true");
+        assertEquals(28 * (compressed ? 4 : 8), metrics.getBytesCopied());
+        assertEquals(1, metrics.getIteratorCount());
+
+        // The same numbers are visible through JMX.
+        metrics.register("testMetrics");
+        try {
+            MBeanServer server = ManagementFactory.getPlatformMBeanServer();
+            ObjectName name = new ObjectName("com.mycompany.dequeue:type=Queue,name=\"testMetrics\"");
+            assertEquals(3L, server.getAttribute(name, "GrowCount"));
+        } finally {
+            metrics.unregister();
+        }
+    }
+
+    @Test
+    public void testJavaUtilDeque() {
+        Queue<Integer> queue = new Queue<>();
+        java.util.Deque<Integer> deque = queue;
+
+        // Empty queue: the poll/peek methods return null, the others throw.
+        assertNull(deque.pollFirst());
+        assertNull(deque.peekLast());
+        try {
+            deque.removeFirst();
+            fail("Expected NoSuchElementException on an empty queue");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+
+        assertTrue(deque.offerLast(2));
+        deque.addFirst(1);
+        deque.push(0);
+        assertTrue(deque.add(3));
+        assertEquals(Integer.valueOf(0), deque.peek());
+        assertEquals(Integer.valueOf(3), deque.getLast());
+        assertEquals("[0, 1, 2, 3]", deque.toString());
+
+        // It can be passed to JDK APIs that expect a Collection.
+        assertEquals(Arrays.asList(0, 1, 2, 3), new ArrayList<>(queue));
+        assertEquals(Integer.valueOf(3), java.util.Collections.max(queue));
+        assertTrue(queue.contains(2));
+        assertFalse(queue.contains(7));
+        assertTrue(queue.containsAll(Arrays.asList(1, 3)));
+
+        assertEquals(Integer.valueOf(0), deque.pop());
+        assertEquals(Integer.valueOf(1), deque.poll());
+        assertEquals(Integer.valueOf(3), deque.pollLast());
+        assertEquals(1, deque.size());
+    }
+
+    @Test
+    public void testToArrayAcrossWrapPoint() {
+        Queue<Integer> queue = new Queue<>(8);
+        for (int i = 0; i < 4; i++) {
+            queue.pushLast(i);
+        }
+        for (int i = 1; i <= 3; i++) {
+            queue.pushFirst(-i);
+        }
+
+        assertArrayEquals(new Object[] {-3, -2, -1, 0, 1, 2, 3}, queue.toArray());
+        assertArrayEquals(new Integer[] {-3, -2, -1, 0, 1, 2, 3}, queue.toArray(new Integer[0]));
+
+        // A larger array is filled and the slot after the last element is set to null.
+        Integer[] larger = new Integer[9];
+        Arrays.fill(larger, 42);
+        assertSame(larger, queue.toArray(larger));
+        assertNull(larger[7]);
+        assertEquals(Integer.valueOf(42), larger[8]);
+    }
+
+    @Test
+    public void testRemoveIfCompactsInPlace() {
+        Queue<Integer> queue = new Queue<>(16);
+        for (int i = 0; i < 8; i++) {
+            queue.pushLast(i);
+        }
+        for (int i = 1; i <= 6; i++) {
+            queue.pushFirst(-i);
+        }
+
+        assertTrue(queue.removeIf(x -> x % 2 == 0));
+        assertEquals(Arrays.asList(-5, -3, -1, 1, 3, 5, 7), new ArrayList<>(queue));
+        assertFalse(queue.removeIf(x -> x > 100));
+
+        assertTrue(queue.removeAll(Arrays.asList(-5, 7)));
+        assertTrue(queue.retainAll(Arrays.asList(-1, 1, 3, 99)));
+        assertEquals(Arrays.asList(-1, 1, 3), new ArrayList<>(queue));
+
+        // The queue is still consistent at both ends.
+        queue.pushLast(4);
+        queue.pushFirst(-2);
+        assertEquals("[-2, -1, 1, 3, 4]", queue.toString());
+
+        // A filter that throws leaves the untested elements in place.
+        try {
+            queue.removeIf(x -> {
+                if (x == 3) {
+                    throw new IllegalStateException();
+                }
+                return x < 0;
+            });
+            fail("Expected the exception of the filter");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+        assertEquals("[1, 3, 4]", queue.toString());
+    }
+
+    @Test
+    public void testRemoveOccurrence() {
+        Queue<String> queue = new Queue<>(8);
+        for (String s : new String[] {"a", "b", "c", "b", "d", "e", "b"}) {
+            queue.pushLast(s);
+        }
+
+        // Near the front the front part is shifted, near the end the end part.
+        assertTrue(queue.removeFirstOccurrence("b"));
+        assertEquals("[a, c, b, d, e, b]", queue.toString());
+        assertTrue(queue.removeLastOccurrence("b"));
+        assertEquals("[a, c, b, d, e]", queue.toString());
+        assertTrue(queue.remove("d"));
+        assertFalse(queue.remove("z"));
+        assertEquals("[a, c, b, e]", queue.toString());
+        assertEquals("a", queue.first());
+        assertEquals("e", queue.last());
+    }
+
+    @Test
+    public void testAddAllGrowsOnce() {
+        Queue<Integer> queue = new Queue<>();
+        List<Integer> values = new ArrayList<>();
+        for (int i = 0; i < 1000; i++) {
+            values.add(i);
+        }
+        assertTrue(queue.addAll(values));
+        assertFalse(queue.addAll(new ArrayList<>()));
+        assertEquals(1, queue.getGrowCount());
+        assertEquals(values, new ArrayList<>(queue));
+    }
+
     @Test
     public void testQueueOperations() {
         Queue<Integer> queue = new Queue<>();
@@ -0,0 +1,117 @@
+package com.mycompany.dequeue;
+
+import java.util.ArrayDeque;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class OverwritingQueueTest {
+
+    @Test
+    public void testKeepsLatestElements() {
+        checkKeepsLatestElements(8);
+    }
+
+    @Test
+    public void testKeepsLatestElementsWithNonPowerOfTwoCapacity() {
+        // The array is rounded up to 8 slots, but the ring still keeps exactly 5 elements.
+        checkKeepsLatestElements(5);
+    }
+
+    private static void checkKeepsLatestElements(int capacity) {
+        OverwritingQueue<Integer> ring = new OverwritingQueue<>(capacity);
+        ArrayDeque<Integer> expected = new ArrayDeque<>();
+        Random random = new Random(11);
+
+        for (int i = 0; i < 10_000; i++) {
+            int op = random.nextInt(10);
+            if (op < 6) {
+                ring.pushLast(i);
+                expected.addLast(i);
+            } else if (op == 6) {
+                // A bulk push longer than the ring keeps only its tail.
+                Integer[] batch = new Integer[random.nextInt(20)];
+                for (int j = 0; j < batch.length; j++) {
+                    batch[j] = -j;
+                    expected.addLast(-j);
+                }
+                ring.pushAllLast(batch);
+            } else if (op == 7 && !expected.isEmpty()) {
+                assertEquals(expected.pollFirst(), ring.popFirst());
+            } else if (op == 8 && !expected.isEmpty()) {
+                assertEquals(expected.pollLast(), ring.popLast());
+            } else if (op == 9 && expected.size() < capacity) {
+                ring.pushFirst(i);
+                expected.addFirst(i);
+            }
+            while (expected.size() > capacity) {
+                expected.removeFirst();
+            }
+
+            assertEquals(expected.size(), ring.size());
+            List<Integer> actual = new ArrayList<>();
+            ring.iterator().forEachRemaining(actual::add);
+            assertEquals(new ArrayList<>(expected), actual);
+        }
+        // The ring never grows.
+        assertEquals(capacity, ring.capacity());
+    }
+
+    @Test
+    public void testNonPowerOfTwoCapacity() {
+        OverwritingQueue<Integer> ring = new OverwritingQueue<>(5);
+        for (int i = 0; i < 12; i++) {
+            ring.pushLast(i);
+        }
+        assertEquals(5, ring.size());
+        assertEquals(Integer.valueOf(7), ring.first());
+        Integer[] dst = new Integer[8];
+        assertEquals(5, ring.snapshot(dst));
+        assertArrayEquals(new Integer[] {7, 8, 9, 10, 11, null, null, null}, dst);
+
+        // A bulk push that overlaps the evicted elements keeps the latest five as well.
+        ring.pushAllLast(new Integer[] {12, 13, 14});
+        assertEquals(5, ring.snapshot(dst));
+        assertArrayEquals(new Integer[] {10, 11, 12, 13, 14}, Arrays.copyOf(dst, 5));
+        try {
+            ring.pushFirst(-1);
+            fail("Expected IllegalStateException on a full ring");
+        } catch (IllegalStateException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testSnapshot() {
+        OverwritingQueue<String> ring = new OverwritingQueue<>(4);
+        for (int i = 0; i < 7; i++) {
+            ring.pushLast("e" + i);
+        }
+        String[] dst = new String[4];
+        assertEquals(4, ring.snapshot(dst));
+        assertArrayEquals(new String[] {"e3", "e4", "e5", "e6"}, dst);
+
+        // A shorter array receives the latest entries; a longer one keeps its tail.
+        String[] shorter = new String[2];
+        assertEquals(2, ring.snapshot(shorter));
+        assertArrayEquals(new String[] {"e5", "e6"}, shorter);
+        String[] longer = {"x", "x", "x", "x", "x", "x"};
+        ring.popFirst();
+        assertEquals(3, ring.snapshot(longer));
+        assertArrayEquals(new String[] {"e4", "e5", "e6", "x", "x", "x"}, longer);
+        assertEquals(3, ring.size());
+    }
+
+    @Test(expected = IllegalStateException.class)
+    public void testPushFirstOnFullRing() {
+        OverwritingQueue<Integer> ring = new OverwritingQueue<>(4);
+        for (int i = 0; i < 4; i++) {
+            ring.pushLast(i);
+        }
+        ring.pushFirst(-1);
+    }
+}
@@ -0,0 +1,76 @@
+package com.mycompany.dequeue;
+
+import java.util.NoSuchElementException;
+import java.util.PrimitiveIterator;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class PrimitiveQueueTest {
+
+    @Test
+    public void testIntQueue() {
+        IntQueue queue = new IntQueue();
+
+        // Push at both ends so that the values wrap around the array.
+        for (int i = 0; i < 1000; i++) {
+            queue.pushLastInt(i);
+            queue.pushFirstInt(-i - 1);
+        }
+        assertEquals(2000, queue.size());
+        assertEquals(-1000, queue.firstInt());
+        assertEquals(999, queue.lastInt());
+
+        // Forward iteration without boxing.
+        PrimitiveIterator.OfInt iterator = queue.iterator();
+        int expected = -1000;
+        while (iterator.hasNext()) {
+            assertEquals(expected++, iterator.nextInt());
+        }
+        assertEquals(1000, expected);
+
+        // Pop from both ends, the queue shrinks on the way.
+        for (int i = 999; i >= 0; i--) {
+            assertEquals(i, queue.popLastInt());
+            assertEquals(-i - 1, queue.popFirstInt());
+        }
+        assertTrue(queue.isEmpty());
+        assertEquals(Queue.DEFAULT_CAPACITY, queue.getCapacity());
+    }
+
+    @Test
+    public void testLongQueue() {
+        LongQueue queue = new LongQueue(16);
+        queue.pushLastLong(1L << 40);
+        queue.pushLast(2L);
+        queue.pushFirstLong(3L);
+
+        // The boxed DeQueue methods see the same values.
+        assertEquals(Long.valueOf(3L), queue.first());
+        assertArrayEquals(new long[] {3L, 1L << 40, 2L}, queue.toArray());
+
+        PrimitiveIterator.OfLong descending = queue.descendingIterator();
+        assertEquals(2L, descending.nextLong());
+        assertEquals(1L << 40, descending.nextLong());
+        assertEquals(3L, descending.nextLong());
+        assertFalse(descending.hasNext());
+    }
+
+    @Test
+    public void testDoubleQueue() {
+        DoubleQueue queue = new DoubleQueue();
+        queue.pushLastDouble(0.5);
+        queue.pushLastDouble(1.5);
+        assertEquals(0.5, queue.popFirstDouble(), 0.0);
+        assertEquals(1.5, queue.lastDouble(), 0.0);
+        queue.clear();
+        assertTrue(queue.isEmpty());
+
+        try {
+            queue.popFirstDouble();
+            fail("Expected NoSuchElementException");
+        } catch (NoSuchElementException e) {
+            // expected
+        }
+    }
+}
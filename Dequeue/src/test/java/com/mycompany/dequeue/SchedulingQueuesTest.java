@@ -0,0 +1,291 @@
+package com.mycompany.dequeue;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicIntegerArray;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SchedulingQueuesTest {
+
+    @Test
+    public void testMultiLevelQueuePriorities() {
+        MultiLevelQueue<String> queue = new MultiLevelQueue<>(8);
+        queue.pushLast("low");
+        queue.pushLast(3, "mid1");
+        queue.pushLast(3, "mid2");
+        queue.pushFirst(0, "high");
+        assertEquals(4, queue.size());
+
+        // The front is the highest-priority lane, the end the lowest.
+        assertEquals("high", queue.first());
+        assertEquals("low", queue.last());
+
+        StringBuilder order = new StringBuilder();
+        queue.iterator().forEachRemaining(s -> order.append(s).append(' '));
+        assertEquals("high mid1 mid2 low", order.toString().trim());
+
+        assertEquals("high", queue.popFirst());
+        assertEquals("low", queue.popLast());
+        assertEquals("mid1", queue.popFirst());
+        assertEquals("mid2", queue.popLast());
+        assertTrue(queue.isEmpty());
+    }
+
+    @Test
+    public void testMultiLevelQueueWeightedDraining() {
+        // Lane 0 may give three elements for every one of lane 1.
+        MultiLevelQueue<Integer> queue = new MultiLevelQueue<>(new int[] {3, 1}, 1);
+        queue.pushAllLast(0, new Integer[] {0, 1, 2, 3, 4, 5, 6});
+        queue.pushAllLast(1, new Integer[] {100, 101, 102});
+
+        List<Integer> order = new ArrayList<>();
+        while (!queue.isEmpty()) {
+            order.add(queue.popWeighted());
+        }
+        assertEquals(List.of(0, 1, 2, 100, 3, 4, 5, 101, 6, 102), order);
+    }
+
+    @Test
+    public void testMultiLevelQueueLaneBulkOperations() {
+        MultiLevelQueue<Integer> queue = new MultiLevelQueue<>(4);
+        queue.pushAllLast(2, new Integer[] {1, 2, 3, 4});
+        queue.pushLast(1, 0);
+
+        Integer[] dst = new Integer[2];
+        assertEquals(2, queue.popFirst(2, 2, dst));
+        assertArrayEquals(new Integer[] {1, 2}, dst);
+
+        List<Integer> drained = new ArrayList<>();
+        assertEquals(2, queue.drainLane(2, drained::add));
+        assertEquals(List.of(3, 4), drained);
+        assertEquals(0, queue.laneSize(2));
+        assertEquals(1, queue.size());
+        assertEquals(Integer.valueOf(0), queue.popFirst());
+    }
+
+    @Test
+    public void testWorkStealingQueueEnds() {
+        WorkStealingQueue<Integer> deque = new WorkStealingQueue<>(2);
+        for (int i = 0; i < 10; i++) {
+            deque.push(i);
+        }
+        assertEquals(10, deque.size());
+
+        // The owner pops the newest element, thieves steal the oldest.
+        assertEquals(Integer.valueOf(9), deque.pop());
+        assertEquals(Integer.valueOf(0), deque.steal());
+        assertEquals(Integer.valueOf(1), deque.steal());
+        for (int i = 8; i >= 2; i--) {
+            assertEquals(Integer.valueOf(i), deque.pop());
+        }
+        assertNull(deque.pop());
+        assertNull(deque.steal());
+        assertTrue(deque.isEmpty());
+    }
+
+    @Test
+    public void testWorkStealingQueueConcurrentSteals() throws InterruptedException {
+        final int n = 100_000;
+        WorkStealingQueue<Integer> deque = new WorkStealingQueue<>();
+        AtomicIntegerArray seen = new AtomicIntegerArray(n);
+        AtomicInteger taken = new AtomicInteger();
+
+        Thread[] thieves = new Thread[3];
+        for (int t = 0; t < thieves.length; t++) {
+            thieves[t] = new Thread(() -> {
+                while (taken.get() < n) {
+                    Integer elem = deque.steal();
+                    if (elem != null) {
+                        seen.incrementAndGet(elem);
+                        taken.incrementAndGet();
+                    } else {
+                        Thread.yield();
+                    }
+                }
+            });
+            thieves[t].start();
+        }
+
+        // The owner pushes everything, popping every third element itself.
+        for (int i = 0; i < n; i++) {
+            deque.push(i);
+            if (i % 3 == 0) {
+                Integer elem = deque.pop();
+                if (elem != null) {
+                    seen.incrementAndGet(elem);
+                    taken.incrementAndGet();
+                }
+            }
+        }
+        Integer elem;
+        while ((elem = deque.pop()) != null) {
+            seen.incrementAndGet(elem);
+            taken.incrementAndGet();
+        }
+        for (Thread thief : thieves) {
+            thief.join();
+        }
+
+        // Every element was taken exactly once.
+        assertEquals(n, taken.get());
+        for (int i = 0; i < n; i++) {
+            assertEquals(1, seen.get(i));
+        }
+    }
+
+    @Test
+    public void testWorkStealingPoolRunsSpawnedTasks() throws InterruptedException {
+        final int fanOut = 100;
+        AtomicInteger runs = new AtomicInteger();
+        CountDownLatch done = new CountDownLatch(fanOut * fanOut);
+        try (WorkStealingPool pool = new WorkStealingPool(4)) {
+            // Every external task spawns its children from a worker thread, onto the worker's own deque.
+            for (int i = 0; i < fanOut; i++) {
+                pool.execute(() -> {
+                    for (int j = 0; j < fanOut; j++) {
+                        pool.execute(() -> {
+                            runs.incrementAndGet();
+                            done.countDown();
+                        });
+                    }
+                });
+            }
+            assertTrue(done.await(10, TimeUnit.SECONDS));
+        }
+        assertEquals(fanOut * fanOut, runs.get());
+    }
+
+    @Test
+    public void testWorkStealingPoolCloseRunsQueuedTasks() throws InterruptedException {
+        AtomicInteger runs = new AtomicInteger();
+        WorkStealingPool pool = new WorkStealingPool(2);
+        for (int i = 0; i < 1000; i++) {
+            pool.execute(runs::incrementAndGet);
+        }
+        pool.close();
+        assertEquals(1000, runs.get());
+        try {
+            pool.execute(runs::incrementAndGet);
+            fail("Expected RejectedExecutionException after close");
+        } catch (RejectedExecutionException e) {
+            // expected
+        }
+    }
+
+    @Test
+    public void testWorkStealingPoolCloseRacingExecute() throws InterruptedException {
+        // Every task that execute() accepted runs, even when close() happens in the middle of the submissions.
+        for (int round = 0; round < 50; round++) {
+            AtomicInteger runs = new AtomicInteger();
+            AtomicInteger accepted = new AtomicInteger();
+            WorkStealingPool pool = new WorkStealingPool(2);
+            Thread submitter = new Thread(() -> {
+                try {
+                    while (true) {
+                        pool.execute(runs::incrementAndGet);
+                        accepted.incrementAndGet();
+                    }
+                } catch (RejectedExecutionException e) {
+                    // the pool was closed
+                }
+            });
+            submitter.start();
+            Thread.sleep(1);
+            pool.close();
+            submitter.join();
+            assertEquals(accepted.get(), runs.get());
+        }
+    }
+
+    @Test
+    public void testTimingWheelExpiryAndCancel() {
+        TimingWheel wheel = new TimingWheel(10, TimeUnit.MILLISECONDS, 8, false);
+        List<String> fired = new ArrayList<>();
+        wheel.schedule(() -> fired.add("a"), 25, TimeUnit.MILLISECONDS);
+        TimingWheel.Timeout cancelled = wheel.schedule(() -> fired.add("b"), 30, TimeUnit.MILLISECONDS);
+        // Longer than the ring: it stays in its bucket for another round.
+        TimingWheel.Timeout late = wheel.schedule(() -> fired.add("c"), 100, TimeUnit.MILLISECONDS);
+        assertEquals(3, wheel.size());
+        assertEquals(10, late.getDeadline());
+
+        assertTrue(cancelled.cancel());
+        assertFalse(cancelled.cancel());
+        assertEquals(2, wheel.size());
+
+        // 25 ms rounds up to 3 ticks.
+        assertEquals(0, wheel.advance(2));
+        assertEquals(1, wheel.tick());
+        assertEquals(List.of("a"), fired);
+        assertEquals(0, wheel.advance(6));
+        assertEquals(1, wheel.advance(1));
+        assertEquals(List.of("a", "c"), fired);
+        assertTrue(late.isExpired());
+        assertFalse(late.cancel());
+        assertTrue(wheel.isEmpty());
+
+        // An empty wheel skips ticks at once.
+        assertEquals(0, wheel.advance(1_000_000_000L));
+        assertEquals(1_000_000_010L, wheel.getCurrentTick());
+    }
+
+    @Test
+    public void testTimingWheelFiresOnDeadline() {
+        for (boolean hierarchical : new boolean[] {true, false}) {
+            // 64 buckets per level: delays up to 300000 ticks need three levels.
+            TimingWheel wheel = new TimingWheel(1, TimeUnit.MILLISECONDS, 64, hierarchical);
+            Random random = new Random(3);
+            int[] firedAt = new int[2000];
+            long[] deadlines = new long[firedAt.length];
+            for (int i = 0; i < firedAt.length; i++) {
+                final int id = i;
+                // Schedule some timeouts later, from a tick that is not aligned to any level.
+                if (i == 1000) {
+                    wheel.advance(777);
+                }
+                long delay = 1 + random.nextInt(i % 2 == 0 ? 100 : 300_000);
+                TimingWheel.Timeout timeout = wheel.schedule(() -> firedAt[id] = (int) wheel.getCurrentTick(), delay, TimeUnit.MILLISECONDS);
+                deadlines[i] = timeout.getDeadline();
+                // Cancel every tenth timeout.
+                if (i % 10 == 0) {
+                    assertTrue(timeout.cancel());
+                }
+            }
+
+            wheel.advance(310_000);
+            assertTrue(wheel.isEmpty());
+            for (int i = 0; i < firedAt.length; i++) {
+                if (i % 10 == 0) {
+                    assertEquals(0, firedAt[i]);
+                } else {
+                    assertEquals("timeout " + i + (hierarchical ? " (hierarchical)" : ""), deadlines[i], firedAt[i]);
+                }
+            }
+        }
+    }
+
+    @Test
+    public void testTimingWheelTaskFailure() {
+        TimingWheel wheel = new TimingWheel(1, TimeUnit.MILLISECONDS);
+        AtomicInteger runs = new AtomicInteger();
+        wheel.schedule(() -> {
+            throw new IllegalStateException("first");
+        }, 1, TimeUnit.MILLISECONDS);
+        wheel.schedule(runs::incrementAndGet, 1, TimeUnit.MILLISECONDS);
+        try {
+            wheel.tick();
+            fail("Expected the exception of the task");
+        } catch (IllegalStateException e) {
+            assertEquals("first", e.getMessage());
+        }
+        // The other task of the tick still ran.
+        assertEquals(1, runs.get());
+        assertTrue(wheel.isEmpty());
+    }
+}
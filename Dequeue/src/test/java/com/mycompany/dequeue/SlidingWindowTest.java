@@ -0,0 +1,67 @@
+package com.mycompany.dequeue;
+
+import java.util.ArrayDeque;
+import java.util.Random;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class SlidingWindowTest {
+
+    @Test
+    public void testCountWindowMatchesRecomputation() {
+        SlidingWindow window = SlidingWindow.ofCount(50);
+        ArrayDeque<Double> expected = new ArrayDeque<>();
+        Random random = new Random(7);
+
+        for (int i = 0; i < 5000; i++) {
+            double value = random.nextInt(1000);
+            window.add(i, value);
+            expected.addLast(value);
+            if (expected.size() > 50) {
+                expected.removeFirst();
+            }
+
+            // Recompute the aggregates over the window and compare.
+            double min = Double.MAX_VALUE;
+            double max = -Double.MAX_VALUE;
+            double sum = 0;
+            for (double v : expected) {
+                min = Math.min(min, v);
+                max = Math.max(max, v);
+                sum += v;
+            }
+            assertEquals(expected.size(), window.count());
+            assertEquals(min, window.min(), 0.0);
+            assertEquals(max, window.max(), 0.0);
+            assertEquals(sum, window.sum(), 1e-6);
+        }
+    }
+
+    @Test
+    public void testTimeWindow() {
+        SlidingWindow window = SlidingWindow.ofDuration(100);
+        window.add(0, 5);
+        window.add(50, 1);
+        window.add(90, 3);
+        assertEquals(3, window.count());
+        assertEquals(1, window.min(), 0.0);
+        assertEquals(5, window.max(), 0.0);
+
+        // At time 100 the first value is 100 old and expires.
+        window.expire(100);
+        assertEquals(2, window.count());
+        assertEquals(3, window.max(), 0.0);
+        assertEquals(2, window.average(), 0.0);
+
+        // Adding a later value expires the rest.
+        window.add(200, 7);
+        assertEquals(1, window.count());
+        assertEquals(7, window.min(), 0.0);
+        assertEquals(7, window.sum(), 0.0);
+
+        window.clear();
+        assertTrue(window.isEmpty());
+        assertEquals(0, window.sum(), 0.0);
+    }
+}
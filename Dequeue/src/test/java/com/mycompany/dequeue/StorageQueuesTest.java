@@ -0,0 +1,264 @@
+package com.mycompany.dequeue;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.ObjectInputStream;
+import java.io.ObjectOutputStream;
+import java.io.StreamCorruptedException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.channels.WritableByteChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Iterator;
+
+import org.junit.Test;
+import static org.junit.Assert.*;
+
+public class StorageQueuesTest {
+
+    @Test
+    public void testOffHeapQueue() {
+        OffHeapQueue<Long> queue = new OffHeapQueue<>(FixedWidthCodec.LONG);
+
+        // Push at both ends so that the slots wrap around the buffer on every resize.
+        for (long i = 0; i < 1000; i++) {
+            queue.pushLast(i);
+            queue.pushFirst(-i - 1);
+        }
+        assertEquals(2000, queue.size());
+        assertEquals(Long.valueOf(-1000), queue.first());
+        assertEquals(Long.valueOf(999), queue.last());
+
+        Iterator<Long> iterator = queue.iterator();
+        for (long expected = -1000; expected < 1000; expected++) {
+            assertEquals(Long.valueOf(expected), iterator.next());
+        }
+        assertFalse(iterator.hasNext());
+
+        // Shrinking keeps the order as well.
+        for (long i = 999; i >= 0; i--) {
+            assertEquals(Long.valueOf(i), queue.popLast());
+            assertEquals(Long.valueOf(-i - 1), queue.popFirst());
+        }
+        assertTrue(queue.isEmpty());
+        assertEquals(Queue.DEFAULT_CAPACITY, queue.getCapacity());
+    }
+
+    @Test(expected = NullPointerException.class)
+    public void testOffHeapQueueRejectsNull() {
+        new OffHeapQueue<>(FixedWidthCodec.INT).pushLast(null);
+    }
+
+    @Test
+    public void testMappedQueueSurvivesReopen() throws IOException {
+        Path file = Files.createTempFile("mapped-queue", ".dat");
+        Files.delete(file);
+        try {
+            try (MappedQueue<Integer> queue = new MappedQueue<>(file, FixedWidthCodec.INT, 4, 0)) {
+                // Wrap around and grow the file a few times.
+                for (int i = 0; i < 50; i++) {
+                    queue.pushLast(i);
+                    queue.pushFirst(-i - 1);
+                }
+                assertEquals(Integer.valueOf(-50), queue.popFirst());
+                assertEquals(Integer.valueOf(49), queue.popLast());
+                assertEquals(128, queue.getCapacity());
+            }
+
+            // Reopening recovers the contents from the header.
+            try (MappedQueue<Integer> queue = new MappedQueue<>(file, FixedWidthCodec.INT, 4, 1)) {
+                assertEquals(98, queue.size());
+                assertEquals(128, queue.getCapacity());
+                Iterator<Integer> iterator = queue.iterator();
+                for (int expected = -49; expected < 49; expected++) {
+                    assertEquals(Integer.valueOf(expected), iterator.next());
+                }
+                assertFalse(iterator.hasNext());
+                queue.clear();
+            }
+
+            try (MappedQueue<Integer> queue = new MappedQueue<>(file, FixedWidthCodec.INT, 4, 1)) {
+                assertTrue(queue.isEmpty());
+            }
+
+            // A file written with another element width is rejected.
+            try {
+                new MappedQueue<>(file, FixedWidthCodec.LONG, 4, 1);
+                fail("Expected IOException for a codec of a different width");
+            } catch (IOException e) {
+                // expected
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testSegmentedQueueReusesChunks() {
+        SegmentedQueue<Integer> queue = new SegmentedQueue<>(8, 2);
+        for (int i = 0; i < 64; i++) {
+            queue.pushLast(i);
+        }
+        assertEquals(8, queue.getChunkCount());
+
+        // Emptied chunks go back to the pool, up to its limit.
+        for (int i = 0; i < 32; i++) {
+            assertEquals(Integer.valueOf(i), queue.popFirst());
+        }
+        assertEquals(4, queue.getChunkCount());
+        assertEquals(2, queue.getPooledChunkCount());
+
+        // New chunks are taken from the pool first.
+        for (int i = 0; i < 8; i++) {
+            queue.pushFirst(-i);
+        }
+        assertEquals(5, queue.getChunkCount());
+        assertEquals(1, queue.getPooledChunkCount());
+        assertEquals(Integer.valueOf(-7), queue.first());
+        assertEquals(Integer.valueOf(63), queue.last());
+    }
+
+    @Test
+    public void testSnapshotRoundTripThroughFileChannel() throws IOException {
+        // Wrap the live range around the end of the array, and make it larger than the write chunks.
+        Queue<Integer> queue = new Queue<>(1 << 19);
+        for (int i = 0; i < 100; i++) {
+            queue.pushLast(-1);
+        }
+        for (int i = 0; i < 400_000; i++) {
+            queue.pushFirst(i);
+        }
+        for (int i = 0; i < 100; i++) {
+            queue.popLast();
+        }
+
+        Path file = Files.createTempFile("queue", ".snapshot");
+        try {
+            long written;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+                written = QueueSnapshot.write(queue, ElementCodec.INT, channel);
+            }
+            assertEquals(20 + 4L * 400_000, written);
+            assertEquals(written, Files.size(file));
+
+            Queue<Integer> restored;
+            try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+                restored = QueueSnapshot.read(channel, ElementCodec.INT);
+            }
+            // The pre-size is capped at 65536 slots, then the queue doubles as the elements arrive.
+            assertEquals(400_000, restored.size());
+            assertEquals(3, restored.getGrowCount());
+            for (int i = 399_999; i >= 0; i--) {
+                assertEquals(Integer.valueOf(i), restored.popFirst());
+            }
+        } finally {
+            Files.deleteIfExists(file);
+        }
+    }
+
+    @Test
+    public void testSnapshotOfStringsThroughStreams() throws IOException {
+        // One string is larger than the write chunks and the first read buffer.
+        StringBuilder large = new StringBuilder();
+        for (int i = 0; i < 300_000; i++) {
+            large.append((char) ('a' + i % 26));
+        }
+        Queue<String> queue = new Queue<>();
+        queue.pushLast("first");
+        queue.pushLast("");
+        queue.pushLast(large.toString());
+        queue.pushLast("\u00e9t\u00e9");
+
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        QueueSnapshot.write(queue, ElementCodec.STRING, Channels.newChannel(out));
+        Queue<String> restored = QueueSnapshot.read(Channels.newChannel(new ByteArrayInputStream(out.toByteArray())), ElementCodec.STRING);
+
+        assertEquals(4, restored.size());
+        assertEquals("first", restored.popFirst());
+        assertEquals("", restored.popFirst());
+        assertEquals(large.toString(), restored.popFirst());
+        assertEquals("\u00e9t\u00e9", restored.popFirst());
+    }
+
+    @Test
+    public void testSnapshotReadStopsAtItsEnd() throws IOException {
+        Queue<Integer> first = new Queue<>();
+        first.pushLast(1);
+        first.pushLast(2);
+        Queue<String> second = new Queue<>();
+        second.pushLast("three");
+
+        // Two snapshots back to back on one stream, each read leaves the next one in place.
+        ByteArrayOutputStream out = new ByteArrayOutputStream();
+        WritableByteChannel sink = Channels.newChannel(out);
+        QueueSnapshot.write(first, ElementCodec.INT, sink);
+        QueueSnapshot.write(second, ElementCodec.STRING, sink);
+        out.write(42);
+
+        ByteArrayInputStream in = new ByteArrayInputStream(out.toByteArray());
+        ReadableByteChannel source = Channels.newChannel(in);
+        Queue<Integer> restoredFirst = QueueSnapshot.read(source, ElementCodec.INT);
+        Queue<String> restoredSecond = QueueSnapshot.read(source, ElementCodec.STRING);
+
+        assertEquals(2, restoredFirst.size());
+        // A small snapshot is sized up front and never grows.
+        assertEquals(0, restoredFirst.getGrowCount());
+        assertEquals(Integer.valueOf(2), restoredFirst.last());
+        assertEquals("three", restoredSecond.popFirst());
+        assertEquals(42, in.read());
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void testSnapshotRejectsNegativeStringLength() throws IOException {
+        ByteBuffer bytes = ByteBuffer.allocate(24);
+        bytes.putInt(0x51534E50).putInt(1).putInt(1).putLong(4).putInt(-1);
+        QueueSnapshot.read(Channels.newChannel(new ByteArrayInputStream(bytes.array())), ElementCodec.STRING);
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void testSnapshotRejectsCountBeyondPayload() throws IOException {
+        // A header that claims about a billion elements but carries one: no array of that size is allocated.
+        ByteBuffer bytes = ByteBuffer.allocate(24);
+        bytes.putInt(0x51534E50).putInt(1).putInt(1 << 30).putLong(4).putInt(7);
+        QueueSnapshot.read(Channels.newChannel(new ByteArrayInputStream(bytes.array())), ElementCodec.INT);
+    }
+
+    @Test(expected = StreamCorruptedException.class)
+    public void testSnapshotRejectsOtherBytes() throws IOException {
+        byte[] bytes = new byte[16];
+        QueueSnapshot.read(Channels.newChannel(new ByteArrayInputStream(bytes)), ElementCodec.INT);
+    }
+
+    @Test
+    public void testQueueJavaSerialization() throws IOException, ClassNotFoundException {
+        Queue<String> queue = new Queue<>(8);
+        for (int i = 0; i < 6; i++) {
+            queue.pushLast("x" + i);
+        }
+        queue.popFirst();
+        queue.popFirst();
+        queue.pushLast("x6");
+        queue.pushLast("x7");
+
+        ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+        try (ObjectOutputStream out = new ObjectOutputStream(bytes)) {
+            out.writeObject(queue);
+        }
+        try (ObjectInputStream in = new ObjectInputStream(new ByteArrayInputStream(bytes.toByteArray()))) {
+            @SuppressWarnings("unchecked")
+            Queue<String> restored = (Queue<String>) in.readObject();
+
+            assertEquals(6, restored.size());
+            for (int i = 2; i < 8; i++) {
+                assertEquals("x" + i, restored.popFirst());
+            }
+            restored.pushLast("again");
+            assertEquals("again", restored.last());
+        }
+    }
+}